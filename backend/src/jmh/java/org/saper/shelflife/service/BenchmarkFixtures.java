@@ -0,0 +1,149 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.dto.SessionDto;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.saper.shelflife.model.Review;
+import org.saper.shelflife.model.Session;
+import org.saper.shelflife.model.Work;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * Deterministic in-memory data for the benchmarks, plus fake repositories so services can be
+ * driven without Spring or a database.
+ */
+public final class BenchmarkFixtures {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final String[] WORDS = {
+            "the", "Dune", "left", "Hand", "of", "darkness", "Messiah", "a", "Wizard", "earthsea",
+            "Children", "time", "Kindred", "neuromancer", "Solaris", "piranesi", "Jade", "city"
+    };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Library rows in random order, with mixed-case titles so the case-insensitive sort has work to do.
+     */
+    public static List<WorkSummaryDto> works(int size) {
+        Random random = new Random(42);
+        WorkStatus[] statuses = WorkStatus.values();
+        WorkType[] types = WorkType.values();
+
+        List<WorkSummaryDto> works = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            works.add(new WorkSummaryDto(
+                    (long) i + 1,
+                    title(random) + " " + i,
+                    "Author " + random.nextInt(Math.max(1, size / 10)),
+                    types[random.nextInt(types.length)],
+                    random.nextBoolean() ? "Science fiction" : null,
+                    statuses[random.nextInt(statuses.length)]
+            ));
+        }
+        Collections.shuffle(works, random);
+        return works;
+    }
+
+    /**
+     * Session rows newest first, as the repository returns them.
+     */
+    public static List<SessionDto> sessions(int size) {
+        List<SessionDto> sessions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Instant startedAt = EPOCH.plus(Duration.ofHours(size - i));
+            sessions.add(new SessionDto(
+                    (long) size - i,
+                    (long) (i % 50) + 1,
+                    startedAt,
+                    startedAt.plus(Duration.ofMinutes(45)),
+                    45,
+                    30,
+                    i % 3 == 0 ? "Read on the train" : null
+            ));
+        }
+        return sessions;
+    }
+
+    public static List<Session> sessionEntities(int size) {
+        Work work = work(1L);
+        List<Session> sessions = new ArrayList<>(size);
+        for (SessionDto dto : sessions(size)) {
+            Session session = new Session();
+            session.setId(dto.id());
+            session.setWork(work);
+            session.setStartedAt(dto.startedAt());
+            session.setEndedAt(dto.endedAt());
+            session.setMinutes(dto.minutes());
+            session.setUnitsCompleted(dto.unitsCompleted());
+            session.setNote(dto.note());
+            sessions.add(session);
+        }
+        return sessions;
+    }
+
+    public static List<Review> reviewEntities(int size) {
+        Random random = new Random(42);
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Review review = new Review();
+            review.setId((long) i + 1);
+            review.setWork(work((long) i + 1));
+            review.setRating(random.nextInt(5) + 1);
+            review.setTitle(title(random));
+            review.setBody(String.join(" ", Collections.nCopies(40, title(random))));
+            review.setPrivateReview(i % 4 == 0);
+            review.setCreatedAt(EPOCH.plus(Duration.ofDays(i)));
+            review.setUpdatedAt(EPOCH.plus(Duration.ofDays(i + 1)));
+            reviews.add(review);
+        }
+        return reviews;
+    }
+
+    /**
+     * A repository whose only working method is the named one; anything else the service
+     * calls fails loudly, so a benchmark can't silently measure a different path.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, String method, Function<Object[], Object> answer) {
+        return (T) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                (proxy, invoked, args) -> {
+                    if (invoked.getName().equals(method)) {
+                        return answer.apply(args);
+                    }
+                    if (invoked.getDeclaringClass() == Object.class) {
+                        return switch (invoked.getName()) {
+                            case "equals" -> proxy == args[0];
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            default -> type.getSimpleName() + " fixture";
+                        };
+                    }
+                    throw new UnsupportedOperationException(type.getSimpleName() + "." + invoked.getName());
+                }
+        );
+    }
+
+    private static Work work(Long id) {
+        Work work = new Work();
+        work.setId(id);
+        work.setTitle("Work " + id);
+        return work;
+    }
+
+    private static String title(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+}
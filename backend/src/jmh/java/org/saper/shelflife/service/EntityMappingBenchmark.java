@@ -0,0 +1,62 @@
+package org.saper.shelflife.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.saper.shelflife.model.Review;
+import org.saper.shelflife.model.Session;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping in SessionService and ReviewService. List endpoints read projections
+ * instead, so this is the cost on write responses and session batches, per entity.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityMappingBenchmark {
+
+    @Param({"100", "10000"})
+    int size;
+
+    private SessionService sessionService;
+    private ReviewService reviewService;
+    private List<Session> sessions;
+    private List<Review> reviews;
+
+    @Setup
+    public void setUp() {
+        sessionService = new SessionService(null, null, null, null, null, null);
+        reviewService = new ReviewService(null, null, null, null);
+        sessions = BenchmarkFixtures.sessionEntities(size);
+        reviews = BenchmarkFixtures.reviewEntities(size);
+    }
+
+    @Benchmark
+    public void sessionToDto(Blackhole blackhole) {
+        for (Session session : sessions) {
+            blackhole.consume(sessionService.toDto(session));
+        }
+    }
+
+    @Benchmark
+    public void reviewToDto(Blackhole blackhole) {
+        for (Review review : reviews) {
+            blackhole.consume(reviewService.toDto(review));
+        }
+    }
+}
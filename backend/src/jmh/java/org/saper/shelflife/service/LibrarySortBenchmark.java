@@ -0,0 +1,53 @@
+package org.saper.shelflife.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.repository.WorkRepository;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WorkService.getWorksForUser on the filtered path: the repository hands back projection rows
+ * and the service sorts them into library order. The unfiltered path is the same sort, run once
+ * per library version and then served from LibraryCache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LibrarySortBenchmark {
+
+    private static final WorkFilter FILTER = new WorkFilter(null, WorkType.BOOK, null, null, null);
+
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    private WorkService workService;
+
+    @Setup
+    public void setUp() {
+        List<WorkSummaryDto> rows = BenchmarkFixtures.works(size);
+        WorkRepository workRepository = BenchmarkFixtures.repository(
+                WorkRepository.class, "findFilteredSummaries", args -> rows);
+        workService = new WorkService(workRepository, null, null, null);
+    }
+
+    @Benchmark
+    public List<WorkSummaryDto> filteredLibrary() {
+        return workService.getWorksForUser(1L, FILTER);
+    }
+}
@@ -0,0 +1,57 @@
+package org.saper.shelflife.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.SessionDto;
+import org.saper.shelflife.repository.SessionRepository;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionService.getSessionPage minus the query: sessions come back sorted from the database,
+ * so the Java side is cursor decoding, trimming the look-ahead row and encoding the next cursor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionPageBenchmark {
+
+    private SessionService sessionService;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        List<SessionDto> rows = BenchmarkFixtures.sessions(SessionService.MAX_PAGE_SIZE * 2);
+        SessionRepository sessionRepository = BenchmarkFixtures.repository(
+                SessionRepository.class, "findSessionPage", args -> {
+                    Limit limit = (Limit) args[6];
+                    return rows.subList(0, Math.min(rows.size(), limit.max()));
+                });
+        sessionService = new SessionService(sessionRepository, null, null, null, null, null);
+        cursor = sessionService.getSessionPage(1L, null, null, null, SessionService.MAX_PAGE_SIZE, null).nextCursor();
+    }
+
+    @Benchmark
+    public CursorPageDto<SessionDto> firstPage() {
+        return sessionService.getSessionPage(1L, null, null, null, SessionService.MAX_PAGE_SIZE, null);
+    }
+
+    @Benchmark
+    public CursorPageDto<SessionDto> nextPage() {
+        return sessionService.getSessionPage(1L, null, null, null, SessionService.MAX_PAGE_SIZE, cursor);
+    }
+}
@@ -0,0 +1,65 @@
+package org.saper.shelflife.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.saper.shelflife.dto.SessionDto;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.saper.shelflife.service.BenchmarkFixtures;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.core.type.TypeReference;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing list responses as JSON. Output goes to a null stream, so this is Jackson's cost alone,
+ * without buffering or the socket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    int size;
+
+    private ObjectWriter workWriter;
+    private ObjectWriter sessionWriter;
+    private List<WorkSummaryDto> works;
+    private List<SessionDto> sessions;
+
+    @Setup
+    public void setUp() {
+        JsonMapper mapper = JsonMapper.builder().build();
+        workWriter = mapper.writerFor(new TypeReference<List<WorkSummaryDto>>() {
+        });
+        sessionWriter = mapper.writerFor(new TypeReference<List<SessionDto>>() {
+        });
+        works = BenchmarkFixtures.works(size);
+        sessions = BenchmarkFixtures.sessions(size);
+    }
+
+    @Benchmark
+    public void workSummaries() {
+        workWriter.writeValue(OutputStream.nullOutputStream(), works);
+    }
+
+    @Benchmark
+    public void sessions() {
+        sessionWriter.writeValue(OutputStream.nullOutputStream(), sessions);
+    }
+}
@@ -0,0 +1,74 @@
+package org.saper.shelflife.web;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.saper.shelflife.service.TokenService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticating a request: the Authorization header is read by CurrentUserIdArgumentResolver
+ * and the token verified by TokenService. "Cold" tokens rotate through more tokens than the
+ * verified cache holds, so every call pays for the HMAC.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenParsingBenchmark {
+
+    // Base64 of a fixed 32-byte key
+    private static final String SECRET = "YmJiYmJiYmJiYmJiYmJiYmJiYmJiYmJiYmJiYmJiYmI=";
+    private static final int COLD_TOKENS = 4096;
+
+    private CurrentUserIdArgumentResolver cachedResolver;
+    private ServletWebRequest cachedRequest;
+
+    private TokenService coldTokenService;
+    private String[] coldTokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        TokenService tokenService = new TokenService(SECRET, Duration.ofHours(12), 10_000, false);
+        cachedResolver = new CurrentUserIdArgumentResolver(tokenService);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(42L).token());
+        cachedRequest = new ServletWebRequest(request);
+
+        // A cache of one entry, so the rotating tokens always miss
+        coldTokenService = new TokenService(SECRET, Duration.ofHours(12), 1, false);
+        coldTokens = new String[COLD_TOKENS];
+        for (int i = 0; i < COLD_TOKENS; i++) {
+            coldTokens[i] = coldTokenService.issue((long) i + 1).token();
+        }
+    }
+
+    @Benchmark
+    public Long resolveCachedToken() {
+        // Each request starts without the resolved id
+        cachedRequest.removeAttribute(CurrentUserIdArgumentResolver.USER_ID_ATTRIBUTE, ServletWebRequest.SCOPE_REQUEST);
+        return cachedResolver.resolveArgument(null, null, cachedRequest, null);
+    }
+
+    @Benchmark
+    public Long verifyColdToken() {
+        String token = coldTokens[next];
+        next = (next + 1) % COLD_TOKENS;
+        return coldTokenService.verify(token);
+    }
+}
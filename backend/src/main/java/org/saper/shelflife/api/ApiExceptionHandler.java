@@ -2,21 +2,37 @@ package org.saper.shelflife.api;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
+import org.saper.shelflife.service.ServiceBusyException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.sql.SQLTransientConnectionException;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
+    private static final String IDEMPOTENCY_KEY_CONSTRAINT = "uk_sessions_user_idempotency_key";
+
+    private final long dbBusyRetryAfterSeconds;
+
+    public ApiExceptionHandler(@Value("${shelflife.db.retry-after-seconds:1}") long dbBusyRetryAfterSeconds) {
+        this.dbBusyRetryAfterSeconds = dbBusyRetryAfterSeconds;
+    }
+
     // Handle ResponseStatusException (what your services already throw)
     @ExceptionHandler(ResponseStatusException.class)
     public ResponseEntity<Map<String, Object>> handleResponseStatusException(
@@ -26,7 +42,8 @@ public class ApiExceptionHandler {
         HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
         String message = ex.getReason() != null ? ex.getReason() : status.getReasonPhrase();
         Map<String, Object> body = baseBody(status, message, request);
-        return new ResponseEntity<>(body, status);
+        // Carries e.g. Retry-After from ServiceBusyException
+        return new ResponseEntity<>(body, ex.getHeaders(), status);
     }
 
     // Handle validation errors on @RequestBody (@Valid)
@@ -70,6 +87,49 @@ public class ApiExceptionHandler {
         return new ResponseEntity<>(body, status);
     }
 
+    // Handle unparseable query/path params (e.g. ?status=NOPE, ?limit=abc)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleTypeMismatch(
+            MethodArgumentTypeMismatchException ex,
+            HttpServletRequest request
+    ) {
+        HttpStatus status = HttpStatus.BAD_REQUEST;
+        Map<String, Object> body = baseBody(status, "Invalid value for parameter '" + ex.getName() + "'", request);
+        return new ResponseEntity<>(body, status);
+    }
+
+    // Two retries of the same batch sync inserting one idempotency key at once; retrying resolves it.
+    // Any other integrity violation is a bug or bad data, not a race, so it stays a 500.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Map<String, Object>> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex,
+            HttpServletRequest request
+    ) {
+        if (!violates(ex, IDEMPOTENCY_KEY_CONSTRAINT)) {
+            return handleGenericException(ex, request);
+        }
+        HttpStatus status = HttpStatus.CONFLICT;
+        Map<String, Object> body = baseBody(status, "Conflicting concurrent write, please retry", request);
+        return new ResponseEntity<>(body, status);
+    }
+
+    // No connection in time (pool or ConnectionLimiter saturated): 503 so clients back off and retry
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleNoConnection(
+            RuntimeException ex,
+            HttpServletRequest request
+    ) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException) {
+                return handleResponseStatusException(
+                        new ServiceBusyException("Database busy, please retry shortly", dbBusyRetryAfterSeconds),
+                        request
+                );
+            }
+        }
+        return handleGenericException(ex, request);
+    }
+
     // Fallback: unexpected errors -> 500
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGenericException(
@@ -84,6 +144,21 @@ public class ApiExceptionHandler {
 
     // ---------- helper ----------
 
+    /**
+     * Whether a unique or other constraint with this name was violated. Matched as a substring,
+     * case-insensitively: MySQL reports "sessions.uk_...", H2 may upper-case it.
+     */
+    private static boolean violates(Throwable ex, String constraint) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof org.hibernate.exception.ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Map<String, Object> baseBody(HttpStatus status, String message, HttpServletRequest request) {
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", Instant.now().toString());
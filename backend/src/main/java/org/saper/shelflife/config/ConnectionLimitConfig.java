@@ -0,0 +1,61 @@
+package org.saper.shelflife.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Puts a {@link ConnectionLimiter} in front of the connection pool. Essential in virtual-thread
+ * mode, where nothing else bounds how many requests ask for a connection; with platform threads
+ * it still keeps 200 Tomcat threads from deadlocking a 20-connection pool on nested connections.
+ * <p>
+ * Both budgets come out of the pool size: background work gets one permit per thread that can
+ * run it (export slots, import workers, the delete worker and the import heartbeat), requests
+ * get what is left minus {@link #NESTED_HEADROOM}. Startup fails if the two don't fit.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "shelflife.db.limiter.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionLimitConfig {
+
+    // Spare connections for permit holders that open a second one (id block allocation)
+    static final int NESTED_HEADROOM = 2;
+
+    // The background delete worker and the import heartbeat
+    private static final int SINGLE_WORKERS = 2;
+
+    @Bean
+    static ConnectionLimiter connectionLimiter(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${shelflife.db.limiter.max-concurrent:0}") int maxConcurrent,
+            @Value("${shelflife.db.limiter.max-waiting:1000}") int maxWaiting,
+            @Value("${shelflife.db.limiter.acquire-timeout:2s}") Duration acquireTimeout,
+            @Value("${shelflife.export.max-concurrent:4}") int maxExports,
+            @Value("${shelflife.import.threads:2}") int importThreads) {
+        int maxBackground = maxExports + importThreads + SINGLE_WORKERS;
+        int requests = maxConcurrent > 0 ? maxConcurrent : poolSize - maxBackground - NESTED_HEADROOM;
+        if (requests < 1 || requests + maxBackground >= poolSize) {
+            throw new IllegalStateException(String.format(
+                    "Connection pool too small: %d connections for %d request permits (shelflife.db.limiter.max-concurrent)"
+                            + " and %d background permits (export.max-concurrent + import.threads + %d) plus nested"
+                            + " connections; raise spring.datasource.hikari.maximum-pool-size or lower the others",
+                    poolSize, requests, maxBackground, SINGLE_WORKERS));
+        }
+        return new ConnectionLimiter(requests, maxBackground, maxWaiting, acquireTimeout);
+    }
+
+    @Bean
+    static BeanPostProcessor connectionLimitingDataSourcePostProcessor(ObjectProvider<ConnectionLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? limiter.getObject().wrap(dataSource) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package org.saper.shelflife.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.saper.shelflife.service.BackgroundWork;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps how many threads may hold a pooled connection, and how many may queue for one.
+ * <p>
+ * With virtual threads every request gets its own thread, so thousands can reach the pool at
+ * once; Hikari would park them all for up to its connection timeout. Here a thread takes a
+ * (fair) permit before asking the pool and gives it back when it closes its connection. Past
+ * {@code maxWaiting} queued threads, or after {@code acquireTimeout}, getConnection fails fast
+ * with SQLTransientConnectionException, which the API turns into a 503 with Retry-After.
+ * <p>
+ * Requests and {@link BackgroundWork} draw on separate budgets. Exports stream for up to half an
+ * hour and import workers hold a connection per chunk; sharing one budget, they could leave the
+ * API a single permit.
+ * <p>
+ * Permits are per thread, not per connection: a thread that already holds one (e.g. Hibernate
+ * allocating an id block on a second connection mid-transaction) goes straight to the pool.
+ * Keeping both budgets together below the pool size leaves those nested connections room, so
+ * permit holders can never exhaust the pool between them.
+ */
+final class ConnectionLimiter implements MeterBinder {
+
+    private final Budget requests;
+    private final Budget background;
+
+    // Open connections of the current thread and the budget their permit came from
+    private final ThreadLocal<Holder> holders = ThreadLocal.withInitial(Holder::new);
+
+    ConnectionLimiter(int maxConcurrent, int maxBackground, int maxWaiting, Duration acquireTimeout) {
+        this.requests = new Budget("requests", maxConcurrent, maxWaiting, acquireTimeout);
+        this.background = new Budget("background", maxBackground, maxWaiting, acquireTimeout);
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return JdbcProxies.proxy(dataSource, JdbcProxies.interfacesOf(dataSource, DataSource.class), (target, method, args) -> {
+            if (!method.getName().equals("getConnection")) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+
+            Holder holder = holders.get();
+            if (holder.open == 0) {
+                Budget budget = BackgroundWork.isActive() ? background : requests;
+                budget.acquire();
+                holder.budget = budget;
+            }
+            holder.open++;
+            try {
+                return wrapConnection((Connection) JdbcProxies.invoke(target, method, args), holder);
+            } catch (Throwable ex) {
+                closed(holder);
+                throw ex;
+            }
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        requests.bindTo(registry);
+        background.bindTo(registry);
+    }
+
+    // ---------- Internal helpers ----------
+
+    private void closed(Holder holder) {
+        if (--holder.open == 0) {
+            holder.budget.permits.release();
+            holder.budget = null;
+        }
+    }
+
+    private Connection wrapConnection(Connection connection, Holder holder) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return JdbcProxies.proxy(connection, new Class<?>[]{Connection.class}, (target, method, args) -> {
+            if (!method.getName().equals("close")) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+            try {
+                return JdbcProxies.invoke(target, method, args);
+            } finally {
+                // close() may be called more than once; only the first one counts
+                if (closed.compareAndSet(false, true)) {
+                    closed(holder);
+                }
+            }
+        });
+    }
+
+    private static final class Holder {
+        int open;
+        Budget budget;
+    }
+
+    /**
+     * Permits, wait queue and rejection counts of one kind of caller.
+     */
+    private static final class Budget {
+
+        private final String name;
+        private final int maxConcurrent;
+        private final int maxWaiting;
+        private final long acquireTimeoutNanos;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicLong rejectedQueueFull = new AtomicLong();
+        private final AtomicLong rejectedTimeout = new AtomicLong();
+
+        Budget(String name, int maxConcurrent, int maxWaiting, Duration acquireTimeout) {
+            this.name = name;
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaiting = maxWaiting;
+            this.acquireTimeoutNanos = acquireTimeout.toNanos();
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+
+        void acquire() throws SQLTransientConnectionException {
+            // Timed tryAcquire, unlike tryAcquire(), doesn't jump the queue of a fair semaphore
+            if (tryAcquire(0)) {
+                return;
+            }
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                rejectedQueueFull.incrementAndGet();
+                throw new SQLTransientConnectionException("Too many requests waiting for a database connection");
+            }
+            try {
+                if (!tryAcquire(acquireTimeoutNanos)) {
+                    rejectedTimeout.incrementAndGet();
+                    throw new SQLTransientConnectionException("Timed out waiting for a database connection");
+                }
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Gauge.builder("shelflife.db.limiter.active", permits, p -> maxConcurrent - p.availablePermits())
+                    .description("Threads holding a database connection permit")
+                    .tag("budget", name)
+                    .register(registry);
+            Gauge.builder("shelflife.db.limiter.waiting", waiting, AtomicInteger::get)
+                    .description("Threads queued for a database connection permit")
+                    .tag("budget", name)
+                    .register(registry);
+            FunctionCounter.builder("shelflife.db.limiter.rejected", rejectedQueueFull, AtomicLong::get)
+                    .description("Connection requests turned away by the limiter")
+                    .tags("budget", name, "reason", "queue-full")
+                    .register(registry);
+            FunctionCounter.builder("shelflife.db.limiter.rejected", rejectedTimeout, AtomicLong::get)
+                    .description("Connection requests turned away by the limiter")
+                    .tags("budget", name, "reason", "timeout")
+                    .register(registry);
+        }
+
+        private boolean tryAcquire(long timeoutNanos) throws SQLTransientConnectionException {
+            try {
+                return permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.saper.shelflife.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the FULLTEXT indexes behind GET /api/search if they are missing.
+ * <p>
+ * JPA's @Index can't declare FULLTEXT, so schema update never creates them. Adding the first
+ * FULLTEXT index rebuilds the table once (InnoDB adds its hidden FTS_DOC_ID column); after that
+ * this is a pair of information_schema lookups per startup. Set
+ * {@code shelflife.search.manage-indexes=false} to create them by hand instead (e.g. with
+ * an online schema change tool on a large table).
+ */
+@Component
+@ConditionalOnProperty(name = "shelflife.search.manage-indexes", havingValue = "true", matchIfMissing = true)
+public class FullTextIndexInitializer implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(FullTextIndexInitializer.class);
+
+    /**
+     * table, index name, columns. Must match the MATCH(...) column lists in WorkRepository.search.
+     */
+    private static final List<String[]> INDEXES = List.of(
+            new String[]{"works", "ft_works_text", "title, creator, genre"},
+            new String[]{"reviews", "ft_reviews_text", "title, body"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is only injected to order this after schema creation/update
+    public FullTextIndexInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (String[] index : INDEXES) {
+            if (exists(index[0], index[1])) {
+                continue;
+            }
+
+            log.info("Creating FULLTEXT index {} on {} ({}); this rebuilds the table once", index[1], index[0], index[2]);
+            try {
+                jdbcTemplate.execute("alter table " + index[0] + " add fulltext index " + index[1] + " (" + index[2] + ")");
+            } catch (DataAccessException ex) {
+                // Another instance may have created it at the same time
+                if (!exists(index[0], index[1])) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private boolean exists(String table, String index) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.statistics"
+                        + " where table_schema = database() and table_name = ? and index_name = ?",
+                Integer.class,
+                table,
+                index
+        );
+        return count != null && count > 0;
+    }
+}
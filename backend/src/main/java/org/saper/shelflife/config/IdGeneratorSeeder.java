@@ -0,0 +1,52 @@
+package org.saper.shelflife.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.saper.shelflife.model.IdGenerators;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Creates the id_generators rows and makes sure each is at least the highest existing id.
+ * <p>
+ * The only writer of initial rows (PooledTableIdGenerator leaves them out of Hibernate's DDL).
+ * Tables created before the switch from IDENTITY already contain auto-increment ids, and a
+ * fresh generator row would hand those out again. Runs once at startup, after Hibernate
+ * has updated the schema and before the web server accepts requests. The upsert only ever
+ * raises the stored value, so it is safe when several instances start at once.
+ */
+@Component
+public class IdGeneratorSeeder implements InitializingBean {
+
+    /**
+     * Generator row (pkColumnValue) -> table and id column it allocates for.
+     */
+    private static final Map<String, String[]> SEGMENTS = Map.of(
+            "users", new String[]{"users", "user_id"},
+            "works", new String[]{"works", "work_id"},
+            "sessions", new String[]{"sessions", "session_id"},
+            "reviews", new String[]{"reviews", "review_id"},
+            "import_jobs", new String[]{"import_jobs", "import_job_id"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // EntityManagerFactory is only injected to order this after schema creation/update
+    public IdGeneratorSeeder(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        SEGMENTS.forEach((segment, target) -> jdbcTemplate.update(
+                "insert into " + IdGenerators.TABLE
+                        + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ")"
+                        + " select ?, coalesce(max(" + target[1] + "), 0) from " + target[0]
+                        + " on duplicate key update " + IdGenerators.VALUE_COLUMN
+                        + " = greatest(" + IdGenerators.VALUE_COLUMN + ", values(" + IdGenerators.VALUE_COLUMN + "))",
+                segment
+        ));
+    }
+}
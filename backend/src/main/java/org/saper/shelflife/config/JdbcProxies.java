@@ -0,0 +1,55 @@
+package org.saper.shelflife.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Plumbing shared by the JDBC wrappers ({@link SqlTracingDataSource}, {@link ConnectionLimiter}):
+ * JDK proxies with identity equals/hashCode and unwrapped invocation exceptions.
+ */
+final class JdbcProxies {
+
+    private JdbcProxies() {
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Every interface the object implements, plus {@code primary}. Wrapping a pool with all of
+     * them keeps Closeable and its MXBean, so shutdown and pool metrics still work, also when
+     * one wrapper wraps another.
+     */
+    static Class<?>[] interfacesOf(Object target, Class<?> primary) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>(Set.of(primary));
+        for (Class<?> type = target.getClass(); type != null && type != Proxy.class; type = type.getSuperclass()) {
+            interfaces.addAll(Set.of(type.getInterfaces()));
+        }
+        return interfaces.toArray(Class<?>[]::new);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(T target, Class<?>[] interfaces, Handler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> switch (method.getName()) {
+            // Identity semantics for the wrapper itself, as pools and Hibernate key maps by these objects
+            case "equals" -> args.length == 1 ? proxy == args[0] : handler.handle(target, method, args);
+            case "hashCode" -> args == null ? System.identityHashCode(proxy) : handler.handle(target, method, args);
+            default -> handler.handle(target, method, args);
+        };
+        return (T) Proxy.newProxyInstance(JdbcProxies.class.getClassLoader(), interfaces, invocationHandler);
+    }
+
+    static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.saper.shelflife.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.saper.shelflife.service.AuthService;
+import org.saper.shelflife.service.ReviewService;
+import org.saper.shelflife.service.SessionService;
+import org.saper.shelflife.service.UserService;
+import org.saper.shelflife.service.WorkService;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+
+/**
+ * Times every public method of the core services (see {@link ServiceMetricsInterceptor}).
+ * <p>
+ * The advisor joins the proxy the services already get for {@code @Transactional}, so there
+ * is no extra proxy layer. It runs outermost, so the timing includes the commit, and a
+ * commit failure counts against the method that caused it.
+ * Repository calls are timed by Spring Boot itself as {@code spring.data.repository.invocations}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ServiceMetricsConfig {
+
+    static final Set<Class<?>> TIMED_SERVICES = Set.of(
+            WorkService.class,
+            SessionService.class,
+            ReviewService.class,
+            UserService.class,
+            AuthService.class
+    );
+
+    // Static and lazy about the registry: advisors are created before most other beans
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new PublicServiceMethods(),
+                new ServiceMetricsInterceptor(meterRegistry::getObject)
+        );
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    /**
+     * Public methods declared by one of the timed services, not inherited ones like toString.
+     */
+    static final class PublicServiceMethods extends StaticMethodMatcherPointcut {
+
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            Class<?> service = ClassUtils.getUserClass(targetClass);
+            return TIMED_SERVICES.contains(service)
+                    && method.getDeclaringClass() == service
+                    && Modifier.isPublic(method.getModifiers())
+                    && !Modifier.isStatic(method.getModifiers());
+        }
+    }
+}
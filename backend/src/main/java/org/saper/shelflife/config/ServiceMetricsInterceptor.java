@@ -0,0 +1,62 @@
+package org.saper.shelflife.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Supplier;
+
+/**
+ * Records each call as a {@code shelflife.service} timer tagged with class, method, outcome and
+ * exception. Outcome follows the HTTP status the exception maps to, like {@code http.server.requests}:
+ * SUCCESS, CLIENT_ERROR (a 4xx ResponseStatusException, e.g. not found or bad input) or
+ * SERVER_ERROR (anything else, including 503 when a pool is saturated). The timer's count per
+ * outcome doubles as the call and error counter.
+ */
+final class ServiceMetricsInterceptor implements MethodInterceptor {
+
+    static final String METRIC = "shelflife.service";
+
+    private final Supplier<MeterRegistry> meterRegistry;
+
+    ServiceMetricsInterceptor(Supplier<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        MeterRegistry registry = meterRegistry.get();
+        Timer.Sample sample = Timer.start(registry);
+        Throwable failure = null;
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            failure = ex;
+            throw ex;
+        } finally {
+            Class<?> service = invocation.getThis() != null
+                    ? ClassUtils.getUserClass(invocation.getThis())
+                    : invocation.getMethod().getDeclaringClass();
+            sample.stop(Timer.builder(METRIC)
+                    .description("Service method calls")
+                    .tag("class", service.getSimpleName())
+                    .tag("method", invocation.getMethod().getName())
+                    .tag("outcome", outcome(failure))
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(registry));
+        }
+    }
+
+    static String outcome(Throwable failure) {
+        if (failure == null) {
+            return "SUCCESS";
+        }
+        if (failure instanceof ResponseStatusException status && status.getStatusCode().is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        return "SERVER_ERROR";
+    }
+}
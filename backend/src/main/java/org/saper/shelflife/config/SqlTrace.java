@@ -0,0 +1,95 @@
+package org.saper.shelflife.config;
+
+import org.saper.shelflife.model.IdGenerators;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SQL activity of one HTTP request: statements executed, rows read and time spent in JDBC calls.
+ * <p>
+ * Bound to the request thread by {@link SqlTraceFilter} and fed by {@link SqlTracingDataSource}.
+ * Work on other threads (imports, background deletes) is not traced. Each distinct SELECT is also
+ * counted, so a query repeated once per row of an earlier result (an N+1) can be reported.
+ */
+final class SqlTrace {
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    // Bounds the per-request map on requests that run many different queries
+    private static final int MAX_DISTINCT_SELECTS = 500;
+
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private final Map<String, Integer> selects = new HashMap<>();
+
+    static SqlTrace begin() {
+        SqlTrace trace = new SqlTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The current thread's trace, or null outside a traced request.
+     */
+    static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql, long nanos) {
+        statements++;
+        jdbcNanos += nanos;
+        if (sql != null && isRepeatableSelect(sql) && (selects.size() < MAX_DISTINCT_SELECTS || selects.containsKey(sql))) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Time spent in a JDBC call that isn't a statement of its own (fetching the next batch of rows).
+     */
+    void time(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    void row() {
+        rows++;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long rows() {
+        return rows;
+    }
+
+    long jdbcNanos() {
+        return jdbcNanos;
+    }
+
+    /**
+     * The SELECT run most often in this request, if it ran at least threshold times, else null.
+     */
+    Map.Entry<String, Integer> mostRepeatedSelect(int threshold) {
+        Map.Entry<String, Integer> worst = null;
+        for (Map.Entry<String, Integer> entry : selects.entrySet()) {
+            if (entry.getValue() >= threshold && (worst == null || entry.getValue() > worst.getValue())) {
+                worst = entry;
+            }
+        }
+        return worst;
+    }
+
+    // Id allocation reads the generator row once per block of ids by design; that's not an N+1
+    private static boolean isRepeatableSelect(String sql) {
+        String head = sql.stripLeading();
+        return head.regionMatches(true, 0, "select", 0, 6)
+                && !sql.toLowerCase(Locale.ROOT).contains(IdGenerators.TABLE);
+    }
+}
@@ -0,0 +1,41 @@
+package org.saper.shelflife.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL tracing: the DataSource is wrapped to count statements, rows and JDBC time,
+ * and a filter scopes the counts to each HTTP request (see {@link SqlTraceFilter}).
+ */
+@Configuration(proxyBeanMethods = false)
+public class SqlTraceConfig {
+
+    @Bean
+    static BeanPostProcessor sqlTracingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? SqlTracingDataSource.wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<SqlTraceFilter> sqlTraceFilter(
+            MeterRegistry meterRegistry,
+            @Value("${shelflife.sql-trace.headers:false}") boolean headers,
+            @Value("${shelflife.sql-trace.repeat-threshold:10}") int repeatThreshold) {
+        FilterRegistrationBean<SqlTraceFilter> registration =
+                new FilterRegistrationBean<>(new SqlTraceFilter(meterRegistry, headers, repeatThreshold));
+        // Outermost, so SQL run by other filters counts too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,124 @@
+package org.saper.shelflife.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.saper.shelflife.web.CurrentUserIdArgumentResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Traces the SQL each request runs (see {@link SqlTrace}) and records it per endpoint as
+ * {@code shelflife.sql.statements}, {@code shelflife.sql.rows} and {@code shelflife.sql.time}.
+ * A SELECT repeated {@code repeat-threshold} times or more in one request is logged as a likely
+ * N+1 and counted in {@code shelflife.sql.repeated}.
+ * <p>
+ * With headers on, the counts also go out as X-SQL-* response headers: just before the body is
+ * written for JSON responses ({@link SqlTraceHeadersAdvice}), or here for bodiless ones.
+ */
+class SqlTraceFilter extends OncePerRequestFilter {
+
+    static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    static final String ROWS_HEADER = "X-SQL-Rows";
+    static final String TIME_HEADER = "X-SQL-Time-Ms";
+    static final String REPEATED_HEADER = "X-SQL-Repeated";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTraceFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headers;
+    private final int repeatThreshold;
+
+    SqlTraceFilter(MeterRegistry meterRegistry, boolean headers, int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.headers = headers;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        SqlTrace trace = SqlTrace.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlTrace.end();
+            record(request, trace);
+            if (headers && !response.isCommitted()) {
+                writeHeaders(trace, repeatThreshold, response::setHeader);
+            }
+        }
+    }
+
+    /**
+     * Sets the X-SQL-* headers through the given setter (servlet or Spring response).
+     */
+    static void writeHeaders(SqlTrace trace, int repeatThreshold, HeaderSetter setter) {
+        setter.set(STATEMENTS_HEADER, Integer.toString(trace.statements()));
+        setter.set(ROWS_HEADER, Long.toString(trace.rows()));
+        setter.set(TIME_HEADER, Long.toString(TimeUnit.NANOSECONDS.toMillis(trace.jdbcNanos())));
+        Map.Entry<String, Integer> repeated = trace.mostRepeatedSelect(repeatThreshold);
+        if (repeated != null) {
+            setter.set(REPEATED_HEADER, Integer.toString(repeated.getValue()));
+        }
+    }
+
+    @FunctionalInterface
+    interface HeaderSetter {
+        void set(String name, String value);
+    }
+
+    // ---------- Internal helpers ----------
+
+    private void record(HttpServletRequest request, SqlTrace trace) {
+        if (trace.statements() == 0) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        Tags tags = Tags.of("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN");
+
+        DistributionSummary.builder("shelflife.sql.statements")
+                .description("SQL statements run per request")
+                .serviceLevelObjectives(1, 2, 3, 5, 10, 25, 50, 100)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(trace.statements());
+        DistributionSummary.builder("shelflife.sql.rows")
+                .description("Rows read from the database per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(trace.rows());
+        Timer.builder("shelflife.sql.time")
+                .description("Time spent in JDBC calls per request")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(trace.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        Map.Entry<String, Integer> repeated = trace.mostRepeatedSelect(repeatThreshold);
+        if (repeated != null) {
+            Counter.builder("shelflife.sql.repeated")
+                    .description("Requests that ran the same SELECT repeat-threshold times or more (likely N+1)")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .increment();
+            // The user, if the handler authenticated one, so the slow case can be reproduced with their data
+            log.warn("Likely N+1: {} {} (user {}) ran the same query {} times: {}",
+                    request.getMethod(), request.getRequestURI(),
+                    request.getAttribute(CurrentUserIdArgumentResolver.USER_ID_ATTRIBUTE),
+                    repeated.getValue(), repeated.getKey());
+        }
+    }
+}
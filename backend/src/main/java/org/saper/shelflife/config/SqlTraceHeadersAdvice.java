@@ -0,0 +1,45 @@
+package org.saper.shelflife.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the X-SQL-* headers right before a response body is written, while headers can still change.
+ * By then the service call is done (open-in-view is off), so the counts are final.
+ */
+@ControllerAdvice
+@ConditionalOnProperty(name = "shelflife.sql-trace.headers", havingValue = "true")
+class SqlTraceHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    private final int repeatThreshold;
+
+    SqlTraceHeadersAdvice(@Value("${shelflife.sql-trace.repeat-threshold:10}") int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body,
+                                  MethodParameter returnType,
+                                  MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request,
+                                  ServerHttpResponse response) {
+        SqlTrace trace = SqlTrace.current();
+        if (trace != null) {
+            SqlTraceFilter.writeHeaders(trace, repeatThreshold, response.getHeaders()::set);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,81 @@
+package org.saper.shelflife.config;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps a DataSource so statements, rows and JDBC time are added to the current {@link SqlTrace}.
+ * <p>
+ * Plain JDK proxies over connections, statements and result sets, so Hibernate and JdbcTemplate
+ * are both covered. When no trace is active (background threads) a statement costs one
+ * ThreadLocal lookup and result sets are not wrapped at all. JDBC time is the time spent in
+ * execute calls plus row fetches that go back to the server; it excludes work done in between.
+ */
+final class SqlTracingDataSource {
+
+    private SqlTracingDataSource() {
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return JdbcProxies.proxy(dataSource, JdbcProxies.interfacesOf(dataSource, DataSource.class), (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    // ---------- Internal helpers ----------
+
+    private static Connection wrapConnection(Connection connection) {
+        return JdbcProxies.proxy(connection, new Class<?>[]{Connection.class}, (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            return switch (result) {
+                case CallableStatement statement -> wrapStatement(statement, CallableStatement.class, sql);
+                case PreparedStatement statement -> wrapStatement(statement, PreparedStatement.class, sql);
+                case Statement statement -> wrapStatement(statement, Statement.class, null);
+                case null, default -> result;
+            };
+        });
+    }
+
+    private static Statement wrapStatement(Statement statement, Class<? extends Statement> type, String preparedSql) {
+        return JdbcProxies.proxy(statement, new Class<?>[]{type}, (target, method, args) -> {
+            SqlTrace trace = SqlTrace.current();
+            String name = method.getName();
+            if (trace == null) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+
+            if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                Object result = JdbcProxies.invoke(target, method, args);
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                trace.statement(sql, System.nanoTime() - start);
+                return result instanceof ResultSet resultSet ? wrapResultSet(resultSet, trace) : result;
+            }
+            Object result = JdbcProxies.invoke(target, method, args);
+            return name.equals("getResultSet") && result instanceof ResultSet resultSet
+                    ? wrapResultSet(resultSet, trace)
+                    : result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(ResultSet resultSet, SqlTrace trace) {
+        return JdbcProxies.proxy(resultSet, new Class<?>[]{ResultSet.class}, (target, method, args) -> {
+            if (!method.getName().equals("next")) {
+                return JdbcProxies.invoke(target, method, args);
+            }
+            long start = System.nanoTime();
+            Object more = JdbcProxies.invoke(target, method, args);
+            trace.time(System.nanoTime() - start);
+            if (Boolean.TRUE.equals(more)) {
+                trace.row();
+            }
+            return more;
+        });
+    }
+}
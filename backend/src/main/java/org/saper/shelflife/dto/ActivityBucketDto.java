@@ -0,0 +1,18 @@
+package org.saper.shelflife.dto;
+
+import org.saper.shelflife.model.WorkType;
+
+import java.time.LocalDate;
+
+/**
+ * Reading activity for one time bucket and work type.
+ * bucketStart is the first (UTC) day of the day/week/month bucket.
+ */
+public record ActivityBucketDto(
+        LocalDate bucketStart,
+        WorkType type,
+        long minutes,
+        long unitsCompleted,
+        long sessionCount
+) {
+}
@@ -1,7 +1,10 @@
 package org.saper.shelflife.dto;
 
+import java.time.Instant;
+
 public record AuthResponseDto(
         String token,
+        Instant expiresAt,
         UserProfileDto user
 ) {
 }
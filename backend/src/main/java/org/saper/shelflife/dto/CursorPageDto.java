@@ -0,0 +1,13 @@
+package org.saper.shelflife.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated collection.
+ * nextCursor is opaque to clients and is null on the last page.
+ */
+public record CursorPageDto<T>(
+        List<T> items,
+        String nextCursor
+) {
+}
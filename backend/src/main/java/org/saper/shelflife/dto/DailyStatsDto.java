@@ -0,0 +1,14 @@
+package org.saper.shelflife.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Reading totals for a single (UTC) day.
+ */
+public record DailyStatsDto(
+        LocalDate date,
+        long minutes,
+        long unitsCompleted,
+        long sessionCount
+) {
+}
@@ -0,0 +1,28 @@
+package org.saper.shelflife.dto;
+
+import org.saper.shelflife.model.ImportFormat;
+import org.saper.shelflife.model.ImportStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a library import, returned by POST /api/imports and polled via GET /api/imports/{id}.
+ * errors holds at most the first few rejected rows.
+ */
+public record ImportJobDto(
+        Long id,
+        ImportFormat format,
+        ImportStatus status,
+        String fileName,
+        int rowsRead,
+        int worksCreated,
+        int reviewsCreated,
+        int duplicates,
+        int rejected,
+        List<String> errors,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {
+}
@@ -0,0 +1,19 @@
+package org.saper.shelflife.dto;
+
+import java.time.Instant;
+
+/**
+ * A review as shown in lists: everything but the body.
+ * snippet is the start of the body when the caller asked for one, otherwise null.
+ */
+public record ReviewSummaryDto(
+        Long id,
+        Long workId,
+        Integer rating,
+        String title,
+        String snippet,
+        boolean isPrivate,
+        Instant createdAt,
+        Instant updatedAt
+) {
+}
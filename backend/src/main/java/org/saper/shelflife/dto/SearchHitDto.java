@@ -0,0 +1,22 @@
+package org.saper.shelflife.dto;
+
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+
+import java.math.BigDecimal;
+
+/**
+ * One search result: a work from the library, ranked by relevance.
+ * matchedReview is true when the user's review of the work matched the query.
+ */
+public record SearchHitDto(
+        Long workId,
+        String title,
+        String creator,
+        WorkType type,
+        String genre,
+        WorkStatus status,
+        BigDecimal score,
+        boolean matchedReview
+) {
+}
@@ -0,0 +1,39 @@
+package org.saper.shelflife.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.Instant;
+
+/**
+ * One session in a POST /api/sessions:batch request: the usual session fields plus an
+ * optional client-generated idempotency key (e.g. a UUID) that makes retries safe.
+ */
+public record SessionBatchItemDto(
+        @Size(max = 100)
+        String idempotencyKey,
+
+        @NotNull
+        Long workId,
+
+        Instant startedAt,
+        Instant endedAt,
+
+        @Min(1)
+        @Max(1_000_000)
+        Integer minutes,
+
+        @Min(0)
+        @Max(1_000_000)
+        Integer unitsCompleted,
+
+        @Size(max = 500)
+        String note
+) {
+
+    public SessionCreateUpdateDto toCreateDto() {
+        return new SessionCreateUpdateDto(workId, startedAt, endedAt, minutes, unitsCompleted, note);
+    }
+}
@@ -0,0 +1,33 @@
+package org.saper.shelflife.dto;
+
+/**
+ * Outcome for the item at {@code index} in the request.
+ * session is set for CREATED and DUPLICATE (the row recorded earlier under the same key);
+ * error is set for REJECTED.
+ */
+public record SessionBatchItemResultDto(
+        int index,
+        String idempotencyKey,
+        Status status,
+        SessionDto session,
+        String error
+) {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE,
+        REJECTED
+    }
+
+    public static SessionBatchItemResultDto created(int index, String key, SessionDto session) {
+        return new SessionBatchItemResultDto(index, key, Status.CREATED, session, null);
+    }
+
+    public static SessionBatchItemResultDto duplicate(int index, String key, SessionDto session) {
+        return new SessionBatchItemResultDto(index, key, Status.DUPLICATE, session, null);
+    }
+
+    public static SessionBatchItemResultDto rejected(int index, String key, String error) {
+        return new SessionBatchItemResultDto(index, key, Status.REJECTED, null, error);
+    }
+}
@@ -0,0 +1,19 @@
+package org.saper.shelflife.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Items are validated one by one in the service, so a bad item is reported in the
+ * results instead of failing the whole batch.
+ */
+public record SessionBatchRequestDto(
+        @NotNull
+        @Size(min = 1, max = SessionBatchRequestDto.MAX_ITEMS)
+        List<SessionBatchItemDto> items
+) {
+
+    public static final int MAX_ITEMS = 500;
+}
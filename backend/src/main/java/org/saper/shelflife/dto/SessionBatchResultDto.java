@@ -0,0 +1,11 @@
+package org.saper.shelflife.dto;
+
+import java.util.List;
+
+public record SessionBatchResultDto(
+        int created,
+        int duplicates,
+        int rejected,
+        List<SessionBatchItemResultDto> results
+) {
+}
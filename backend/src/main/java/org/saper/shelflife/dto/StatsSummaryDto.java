@@ -0,0 +1,11 @@
+package org.saper.shelflife.dto;
+
+/**
+ * All-time reading totals for the current user.
+ */
+public record StatsSummaryDto(
+        long totalMinutes,
+        long totalUnitsCompleted,
+        long sessionCount
+) {
+}
@@ -0,0 +1,11 @@
+package org.saper.shelflife.dto;
+
+/**
+ * One autocomplete suggestion: a title or creator already in the library,
+ * and how many of the user's works carry it.
+ */
+public record SuggestionDto(
+        String value,
+        int workCount
+) {
+}
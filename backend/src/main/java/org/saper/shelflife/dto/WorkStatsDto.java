@@ -0,0 +1,13 @@
+package org.saper.shelflife.dto;
+
+/**
+ * Reading totals for a single work.
+ */
+public record WorkStatsDto(
+        Long workId,
+        String title,
+        long minutes,
+        long unitsCompleted,
+        long sessionCount
+) {
+}
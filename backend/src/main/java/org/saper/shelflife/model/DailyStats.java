@@ -0,0 +1,40 @@
+package org.saper.shelflife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Reading totals for one user on one (UTC) day.
+ * Rows are maintained incrementally by StatsService via native upserts.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@IdClass(DailyStatsId.class)
+@Table(name = "user_daily_stats")
+public class DailyStats {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "stat_date", nullable = false, updatable = false)
+    private LocalDate statDate;
+
+    @Column(nullable = false)
+    private long minutes;
+
+    @Column(name = "units_completed", nullable = false)
+    private long unitsCompleted;
+
+    @Column(name = "session_count", nullable = false)
+    private long sessionCount;
+}
@@ -0,0 +1,20 @@
+package org.saper.shelflife.model;
+
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite key of DailyStats: (user_id, stat_date).
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyStatsId implements Serializable {
+
+    private Long userId;
+    private LocalDate statDate;
+}
@@ -0,0 +1,20 @@
+package org.saper.shelflife.model;
+
+/**
+ * Shared settings for the table-backed, pooled id generators used by the main entities.
+ * <p>
+ * MySQL has no sequences, so each entity draws ids from its own row in {@code id_generators}.
+ * Each row holds the highest id handed out so far, and every round trip reserves the next
+ * {@link #ALLOCATION_SIZE} ids (pooled-lo). Because ids are known before the INSERT, Hibernate can batch
+ * inserts, which IDENTITY columns prevent.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "gen_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,13 @@
+package org.saper.shelflife.model;
+
+/**
+ * Supported library import files. See ImportRowMapper for the columns each one reads.
+ */
+public enum ImportFormat {
+    /** ShelfLife's own columns: title, type, creator, genre, status, ... */
+    CSV,
+    /** Goodreads "Export Library" CSV */
+    GOODREADS,
+    /** Letterboxd export (diary.csv, ratings.csv, reviews.csv, watched.csv, watchlist.csv) */
+    LETTERBOXD
+}
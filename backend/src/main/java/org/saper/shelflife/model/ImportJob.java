@@ -0,0 +1,108 @@
+package org.saper.shelflife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.Instant;
+
+/**
+ * A library import and its progress. Counters are updated in the same transaction as each
+ * committed chunk, so they always match what has actually been written.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString(exclude = {"user", "errors"})
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(
+        name = "import_jobs",
+        indexes = {
+                @Index(name = "idx_import_jobs_user_status", columnList = "user_id, status")
+        }
+)
+public class ImportJob {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @PooledTableId("import_jobs")
+    @Column(name = "import_job_id", nullable = false, updatable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(
+            name = "user_id",
+            nullable = false,
+            foreignKey = @ForeignKey(name = "fk_import_jobs_user")
+    )
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private ImportFormat format; // null until detected from the header row
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ImportStatus status = ImportStatus.QUEUED;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Column(name = "rows_read", nullable = false)
+    private int rowsRead;
+
+    @Column(name = "works_created", nullable = false)
+    private int worksCreated;
+
+    @Column(name = "reviews_created", nullable = false)
+    private int reviewsCreated;
+
+    @Column(name = "rows_duplicate", nullable = false)
+    private int duplicates;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private int rejected;
+
+    // First few row errors, one per line ("line 12: title: must not be blank")
+    @Lob
+    private String errors;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // Refreshed by the instance working on the job; a stale one means that instance is gone
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    // --- static factory ---
+
+    public static ImportJob create(User user, ImportFormat format, String fileName) {
+        ImportJob job = new ImportJob();
+        job.setUser(user);
+        job.setFormat(format);
+        job.setFileName(fileName);
+        return job;
+    }
+
+    // --- lifecycle hooks ---
+
+    @PrePersist
+    public void onCreate() {
+        Instant now = Instant.now();
+        if (this.createdAt == null) {
+            this.createdAt = now;
+        }
+        if (this.heartbeatAt == null) {
+            this.heartbeatAt = now;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package org.saper.shelflife.model;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,40 @@
+package org.saper.shelflife.model;
+
+import org.hibernate.boot.model.relational.InitCommand;
+import org.hibernate.boot.model.relational.SqlStringGenerationContext;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.enhanced.TableGenerator;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * The table generator behind {@link PooledTableId}, with the settings from {@link IdGenerators}.
+ * <p>
+ * Hibernate still creates {@code id_generators}, but does not insert the initial rows:
+ * IdGeneratorSeeder does that on every start. With both inserting, a fresh schema logged a
+ * duplicate-key DDL error per row, as Hibernate registers each generator's insert more than once.
+ */
+public class PooledTableIdGenerator extends TableGenerator {
+
+    private final String segment;
+
+    public PooledTableIdGenerator(PooledTableId config, Member member, GeneratorCreationContext context) {
+        this.segment = config.value();
+    }
+
+    @Override
+    public void configure(GeneratorCreationContext creationContext, Properties parameters) {
+        parameters.put(TABLE_PARAM, IdGenerators.TABLE);
+        parameters.put(SEGMENT_COLUMN_PARAM, IdGenerators.NAME_COLUMN);
+        parameters.put(VALUE_COLUMN_PARAM, IdGenerators.VALUE_COLUMN);
+        parameters.put(SEGMENT_VALUE_PARAM, segment);
+        parameters.put(INCREMENT_PARAM, String.valueOf(IdGenerators.ALLOCATION_SIZE));
+        super.configure(creationContext, parameters);
+    }
+
+    @Override
+    protected InitCommand generateInsertInitCommand(SqlStringGenerationContext context) {
+        return new InitCommand();
+    }
+}
@@ -2,6 +2,8 @@ package org.saper.shelflife.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.Instant;
 
@@ -20,7 +22,8 @@ import java.time.Instant;
                 )
         },
         indexes = {
-                @Index(name = "idx_reviews_user_id", columnList = "user_id"),
+                // Per-user lists, newest first (InnoDB appends review_id, the tie-breaker)
+                @Index(name = "idx_reviews_user_created", columnList = "user_id, created_at"),
                 @Index(name = "idx_reviews_work_id", columnList = "work_id")
         }
 )
@@ -28,7 +31,7 @@ public class Review {
 
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("reviews")
     @Column(name = "review_id", nullable = false, updatable = false)
     private Long id; // review_id
 
@@ -38,6 +41,7 @@ public class Review {
             nullable = false,
             foreignKey = @ForeignKey(name = "fk_reviews_user")
     )
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -46,6 +50,7 @@ public class Review {
             nullable = false,
             foreignKey = @ForeignKey(name = "fk_reviews_work")
     )
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Work work;
 
     @Column(nullable = false)
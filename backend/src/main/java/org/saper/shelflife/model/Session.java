@@ -2,6 +2,8 @@ package org.saper.shelflife.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.Instant;
 
@@ -13,17 +15,29 @@ import java.time.Instant;
 @Entity
 @Table(
         name = "sessions",
+        uniqueConstraints = {
+                // Retried batch syncs can't insert the same client session twice
+                @UniqueConstraint(
+                        name = "uk_sessions_user_idempotency_key",
+                        columnNames = {"user_id", "idempotency_key"}
+                )
+        },
         indexes = {
-                @Index(name = "idx_sessions_user_id", columnList = "user_id"),
-                @Index(name = "idx_sessions_work_id", columnList = "work_id"),
-                @Index(name = "idx_sessions_started_at", columnList = "started_at")
+                // Per-user time-range scans; covers the columns the activity aggregation reads.
+                // session_id right after started_at, so (started_at, session_id) pages need no sort.
+                @Index(
+                        name = "idx_sessions_user_started_id",
+                        columnList = "user_id, started_at, session_id, work_id, minutes, units_completed"
+                ),
+                // Per-work timelines, newest first
+                @Index(name = "idx_sessions_work_started", columnList = "work_id, started_at")
         }
 )
 public class Session {
 
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("sessions")
     @Column(name = "session_id", nullable = false, updatable = false)
     private Long id; // session_id
 
@@ -33,6 +47,7 @@ public class Session {
             nullable = false,
             foreignKey = @ForeignKey(name = "fk_sessions_user")
     )
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -41,6 +56,7 @@ public class Session {
             nullable = false,
             foreignKey = @ForeignKey(name = "fk_sessions_work")
     )
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Work work;
 
     @Column(name = "started_at", nullable = false)
@@ -58,6 +74,10 @@ public class Session {
     @Column(length = 500)
     private String note;
 
+    // Client-supplied key from POST /api/sessions:batch; null for sessions created one by one
+    @Column(name = "idempotency_key", length = 100, updatable = false)
+    private String idempotencyKey;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
 
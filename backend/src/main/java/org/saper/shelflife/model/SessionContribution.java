@@ -0,0 +1,44 @@
+package org.saper.shelflife.model;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * What a single session adds to the stats rollups.
+ * Captured before an update so the old values can be subtracted.
+ */
+public record SessionContribution(
+        Long userId,
+        Long workId,
+        Instant startedAt,
+        Integer minutes,
+        Integer unitsCompleted
+) {
+
+    public static SessionContribution of(Session s) {
+        // getId() on the lazy proxies doesn't initialize them
+        return new SessionContribution(
+                s.getUser().getId(),
+                s.getWork().getId(),
+                s.getStartedAt(),
+                s.getMinutes(),
+                s.getUnitsCompleted()
+        );
+    }
+
+    /**
+     * Rollup day; days are bucketed in UTC, matching CAST(started_at AS DATE) on the stored UTC value.
+     */
+    public LocalDate day() {
+        return LocalDate.ofInstant(startedAt, ZoneOffset.UTC);
+    }
+
+    public long minutesOrZero() {
+        return minutes != null ? minutes : 0;
+    }
+
+    public long unitsOrZero() {
+        return unitsCompleted != null ? unitsCompleted : 0;
+    }
+}
@@ -24,7 +24,7 @@ public class User {
 
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("users")
     @Column(name = "user_id", nullable = false, updatable = false)
     private Long id;   // maps to user_id
 
@@ -46,16 +46,18 @@ public class User {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    // Navigation only. Deleting a users row cascades to these in the database, in one statement,
+    // instead of Hibernate loading and deleting every child
     @Setter(AccessLevel.NONE)
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "user")
     private List<Work> works = new ArrayList<>();
 
     @Setter(AccessLevel.NONE)
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "user")
     private List<Session> sessions = new ArrayList<>();
 
     @Setter(AccessLevel.NONE)
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "user")
     private List<Review> reviews = new ArrayList<>();
 
     // --- static factory ---
@@ -0,0 +1,32 @@
+package org.saper.shelflife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * All-time reading totals for one user.
+ * Rows are maintained incrementally by StatsService via native upserts.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "user_stats")
+public class UserStats {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private long minutes;
+
+    @Column(name = "units_completed", nullable = false)
+    private long unitsCompleted;
+
+    @Column(name = "session_count", nullable = false)
+    private long sessionCount;
+}
@@ -0,0 +1,32 @@
+package org.saper.shelflife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Per-user change counters for the works, sessions and reviews collections.
+ * Bumped by VersionService on every write; they back the ETags on the list endpoints.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(name = "user_versions")
+public class UserVersions {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "works_version", nullable = false)
+    private long worksVersion;
+
+    @Column(name = "sessions_version", nullable = false)
+    private long sessionsVersion;
+
+    @Column(name = "reviews_version", nullable = false)
+    private long reviewsVersion;
+}
@@ -2,6 +2,8 @@ package org.saper.shelflife.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -17,16 +19,20 @@ import java.util.List;
 @Table(
         name = "works",
         indexes = {
-                @Index(name = "idx_works_user_id", columnList = "user_id"),
-                @Index(name = "idx_works_status", columnList = "status"),
-                @Index(name = "idx_works_type", columnList = "type")
+                // Serves the keyset-paginated library listing (status bucket, then title); its
+                // leading user_id also serves plain per-user lookups and the users foreign key
+                @Index(name = "idx_works_user_status_title", columnList = "user_id, status, title, work_id"),
+                // Per-user filters (the status filter is served by idx_works_user_status_title)
+                @Index(name = "idx_works_user_type", columnList = "user_id, type, title"),
+                @Index(name = "idx_works_user_genre", columnList = "user_id, genre"),
+                @Index(name = "idx_works_user_creator", columnList = "user_id, creator")
         }
 )
 public class Work {
 
     @EqualsAndHashCode.Include
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @PooledTableId("works")
     @Column(name = "work_id", nullable = false, updatable = false)
     private Long id; // maps to work_id
 
@@ -36,6 +42,7 @@ public class Work {
             nullable = false,
             foreignKey = @ForeignKey(name = "fk_works_user")
     )
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User user;
 
     @Column(nullable = false, length = 255)
@@ -73,12 +80,14 @@ public class Work {
     @Column(name = "updated_at")
     private Instant updatedAt;
 
+    // No entity cascade: WorkDeletionService removes children with bulk deletes,
+    // and the foreign keys cascade in the database (@OnDelete on the child side)
     @Setter(AccessLevel.NONE)
-    @OneToMany(mappedBy = "work", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "work")
     private List<Session> sessions = new ArrayList<>();
 
     @Setter(AccessLevel.NONE)
-    @OneToMany(mappedBy = "work", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToMany(mappedBy = "work")
     private List<Review> reviews = new ArrayList<>();
 
     // --- static factory (optional helper) ---
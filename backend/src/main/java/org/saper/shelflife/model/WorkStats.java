@@ -0,0 +1,40 @@
+package org.saper.shelflife.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * All-time reading totals for one work.
+ * Rows are maintained incrementally by StatsService via native upserts.
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Entity
+@Table(
+        name = "work_stats",
+        indexes = {
+                @Index(name = "idx_work_stats_user_minutes", columnList = "user_id, minutes")
+        }
+)
+public class WorkStats {
+
+    @EqualsAndHashCode.Include
+    @Id
+    @Column(name = "work_id", nullable = false, updatable = false)
+    private Long workId;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private long minutes;
+
+    @Column(name = "units_completed", nullable = false)
+    private long unitsCompleted;
+
+    @Column(name = "session_count", nullable = false)
+    private long sessionCount;
+}
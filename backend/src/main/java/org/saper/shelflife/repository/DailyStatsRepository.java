@@ -0,0 +1,49 @@
+package org.saper.shelflife.repository;
+
+import org.saper.shelflife.dto.DailyStatsDto;
+import org.saper.shelflife.model.DailyStats;
+import org.saper.shelflife.model.DailyStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyStatsRepository extends JpaRepository<DailyStats, DailyStatsId> {
+
+    /**
+     * Atomically adds (or, with negative values, subtracts) a delta to one day's totals.
+     */
+    @Modifying
+    @Query(value = """
+            insert into user_daily_stats (user_id, stat_date, minutes, units_completed, session_count)
+            values (:userId, :day, :minutes, :units, :sessions)
+            on duplicate key update
+                minutes = minutes + :minutes,
+                units_completed = units_completed + :units,
+                session_count = session_count + :sessions
+            """, nativeQuery = true)
+    void addDelta(Long userId, LocalDate day, long minutes, long units, long sessions);
+
+    @Modifying
+    @Query("delete from DailyStats d where d.userId = :userId")
+    void deleteByUserIdInBulk(Long userId);
+
+    /**
+     * Drops a day once its last session has been removed.
+     */
+    @Modifying
+    @Query("delete from DailyStats d where d.userId = :userId and d.statDate = :day and d.sessionCount <= 0")
+    void deleteIfEmpty(Long userId, LocalDate day);
+
+    @Query("""
+            select new org.saper.shelflife.dto.DailyStatsDto(
+                d.statDate, d.minutes, d.unitsCompleted, d.sessionCount)
+            from DailyStats d
+            where d.userId = :userId
+              and d.statDate between :from and :to
+            order by d.statDate
+            """)
+    List<DailyStatsDto> findRange(Long userId, LocalDate from, LocalDate to);
+}
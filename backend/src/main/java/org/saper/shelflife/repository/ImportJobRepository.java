@@ -0,0 +1,44 @@
+package org.saper.shelflife.repository;
+
+import org.saper.shelflife.model.ImportJob;
+import org.saper.shelflife.model.ImportStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    Optional<ImportJob> findByIdAndUserId(Long id, Long userId);
+
+    List<ImportJob> findTop20ByUserIdOrderByCreatedAtDesc(Long userId);
+
+    boolean existsByUserIdAndStatusIn(Long userId, Collection<ImportStatus> statuses);
+
+    @Transactional
+    @Modifying
+    @Query("update ImportJob j set j.heartbeatAt = :now where j.id in :ids")
+    int touch(Collection<Long> ids, Instant now);
+
+    /**
+     * Fails queued or running jobs whose instance stopped sending heartbeats; their workers are gone.
+     * Jobs from before heartbeats existed (null) count as stale.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update ImportJob j
+            set j.status = org.saper.shelflife.model.ImportStatus.FAILED,
+                j.errors = :reason,
+                j.finishedAt = :now
+            where j.status in (org.saper.shelflife.model.ImportStatus.QUEUED,
+                               org.saper.shelflife.model.ImportStatus.RUNNING)
+              and (j.heartbeatAt is null or j.heartbeatAt < :staleBefore)
+            """)
+    int failStale(String reason, Instant staleBefore, Instant now);
+}
@@ -1,14 +1,112 @@
 package org.saper.shelflife.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.saper.shelflife.dto.ReviewDto;
+import org.saper.shelflife.dto.ReviewSummaryDto;
 import org.saper.shelflife.model.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
 
-    List<Review> findByUserId(Long userId);
-
     Optional<Review> findByUserIdAndWorkId(Long userId, Long workId);
+
+    /**
+     * Review lists, newest first, without touching the body column (it is a LONGTEXT and may be
+     * stored off-page). (afterCreatedAt, afterId) is the keyset cursor (null = first page): only
+     * rows after it in (created_at desc, id desc) order. Served by idx_reviews_user_created.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.ReviewSummaryDto(
+                r.id, r.work.id, r.rating, r.title, cast(null as String), r.privateReview, r.createdAt, r.updatedAt)
+            from Review r
+            where r.user.id = :userId
+              and (:afterCreatedAt is null
+                   or r.createdAt < :afterCreatedAt
+                   or (r.createdAt = :afterCreatedAt and r.id < :afterId))
+            order by r.createdAt desc, r.id desc
+            """)
+    List<ReviewSummaryDto> findSummaryPage(Long userId, Instant afterCreatedAt, Long afterId, Limit limit);
+
+    /**
+     * Same as {@link #findSummaryPage}, plus the first snippetLength characters of the body,
+     * cut in SQL so only the snippet crosses the wire.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.ReviewSummaryDto(
+                r.id, r.work.id, r.rating, r.title, substring(cast(r.body as String), 1, :snippetLength),
+                r.privateReview, r.createdAt, r.updatedAt)
+            from Review r
+            where r.user.id = :userId
+              and (:afterCreatedAt is null
+                   or r.createdAt < :afterCreatedAt
+                   or (r.createdAt = :afterCreatedAt and r.id < :afterId))
+            order by r.createdAt desc, r.id desc
+            """)
+    List<ReviewSummaryDto> findSummaryPageWithSnippets(
+            Long userId,
+            int snippetLength,
+            Instant afterCreatedAt,
+            Long afterId,
+            Limit limit
+    );
+
+    /**
+     * Deletes the review only if it belongs to the user, in one statement (no load first).
+     * Returns the number of rows deleted: 0 means not found or not the user's.
+     */
+    @Modifying
+    @Query("delete from Review r where r.id = :reviewId and r.user.id = :userId")
+    int deleteByIdAndUserId(Long reviewId, Long userId);
+
+    @Modifying
+    @Query("delete from Review r where r.work.id = :workId")
+    int deleteByWorkIdInBulk(Long workId);
+
+    /**
+     * One review with its full body, only if it belongs to the user.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.ReviewDto(
+                r.id, r.work.id, r.rating, r.title, r.body, r.privateReview, r.createdAt, r.updatedAt)
+            from Review r
+            where r.id = :reviewId
+              and r.user.id = :userId
+            """)
+    Optional<ReviewDto> findDtoByIdAndUserId(Long reviewId, Long userId);
+
+    /**
+     * The user's review of one work with its full body (uk_reviews_user_work), if any.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.ReviewDto(
+                r.id, r.work.id, r.rating, r.title, r.body, r.privateReview, r.createdAt, r.updatedAt)
+            from Review r
+            where r.user.id = :userId
+              and r.work.id = :workId
+            """)
+    Optional<ReviewDto> findDtoByUserIdAndWorkId(Long userId, Long workId);
+
+    /**
+     * Every review of the user as ReviewDto, in id order, streamed row by row (for exports).
+     * Callers must consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE))
+    @Query("""
+            select new org.saper.shelflife.dto.ReviewDto(
+                r.id, r.work.id, r.rating, r.title, r.body, r.privateReview, r.createdAt, r.updatedAt)
+            from Review r
+            where r.user.id = :userId
+            order by r.id
+            """)
+    Stream<ReviewDto> streamAllByUserId(Long userId);
 }
\ No newline at end of file
@@ -1,13 +1,211 @@
 package org.saper.shelflife.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.saper.shelflife.dto.SessionDto;
 import org.saper.shelflife.model.Session;
+import org.saper.shelflife.model.SessionContribution;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface SessionRepository extends JpaRepository<Session, Long> {
 
     List<Session> findByUserId(Long userId);
 
     List<Session> findByUserIdAndWorkId(Long userId, Long workId);
-}
\ No newline at end of file
+
+    /**
+     * A session only if it belongs to the user; others' rows are filtered in SQL, not loaded.
+     */
+    Optional<Session> findByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Read-only variant of {@link #findByIdAndUserId}: straight into SessionDto, no entity.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.SessionDto(
+                s.id, s.work.id, s.startedAt, s.endedAt, s.minutes, s.unitsCompleted, s.note)
+            from Session s
+            where s.id = :sessionId
+              and s.user.id = :userId
+            """)
+    Optional<SessionDto> findDtoByIdAndUserId(Long sessionId, Long userId);
+
+    /**
+     * Sessions already recorded under any of these idempotency keys (uk_sessions_user_idempotency_key).
+     */
+    List<Session> findByUserIdAndIdempotencyKeyIn(Long userId, Collection<String> idempotencyKeys);
+
+    /**
+     * Sessions newest first, selected straight into SessionDto and sorted/limited in SQL.
+     * All filters are optional (null = no filter):
+     * workId narrows to one work, [from, to) bounds started_at, and
+     * (afterStartedAt, afterId) is the keyset cursor: only rows after it in (started_at desc, id desc) order.
+     * Served by idx_sessions_user_started_id / idx_sessions_work_started.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.SessionDto(
+                s.id, s.work.id, s.startedAt, s.endedAt, s.minutes, s.unitsCompleted, s.note)
+            from Session s
+            where s.user.id = :userId
+              and (:workId is null or s.work.id = :workId)
+              and (:from is null or s.startedAt >= :from)
+              and (:to is null or s.startedAt < :to)
+              and (:afterStartedAt is null
+                   or s.startedAt < :afterStartedAt
+                   or (s.startedAt = :afterStartedAt and s.id < :afterId))
+            order by s.startedAt desc, s.id desc
+            """)
+    List<SessionDto> findSessionPage(
+            Long userId,
+            Long workId,
+            Instant from,
+            Instant to,
+            Instant afterStartedAt,
+            Long afterId,
+            Limit limit
+    );
+
+    /**
+     * Every session of the user as SessionDto, oldest first, streamed row by row (for exports).
+     * Walks idx_sessions_user_started_id in index order, so there is no sort.
+     * Callers must consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE))
+    @Query("""
+            select new org.saper.shelflife.dto.SessionDto(
+                s.id, s.work.id, s.startedAt, s.endedAt, s.minutes, s.unitsCompleted, s.note)
+            from Session s
+            where s.user.id = :userId
+            order by s.startedAt, s.id
+            """)
+    Stream<SessionDto> streamAllByUserId(Long userId);
+
+    /**
+     * Stats contribution of every session on a work, without loading Session entities.
+     * A locking read: it sees (and holds) the committed rows a following bulk delete will remove,
+     * not the transaction's older snapshot.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select new org.saper.shelflife.model.SessionContribution(
+                s.user.id, s.work.id, s.startedAt, s.minutes, s.unitsCompleted)
+            from Session s
+            where s.user.id = :userId
+              and s.work.id = :workId
+            """)
+    List<SessionContribution> findContributionsForWork(Long userId, Long workId);
+
+    /**
+     * Stats contribution of the given sessions (one chunk of a background work delete).
+     */
+    @Query("""
+            select new org.saper.shelflife.model.SessionContribution(
+                s.user.id, s.work.id, s.startedAt, s.minutes, s.unitsCompleted)
+            from Session s
+            where s.id in :ids
+            """)
+    List<SessionContribution> findContributionsByIdIn(Collection<Long> ids);
+
+    long countByWorkId(Long workId);
+
+    /**
+     * The next chunk of a work's sessions to delete, oldest first (idx_sessions_work_started order, no sort).
+     */
+    @Query("select s.id from Session s where s.work.id = :workId order by s.startedAt, s.id")
+    List<Long> findIdsByWorkId(Long workId, Limit limit);
+
+    @Modifying
+    @Query("delete from Session s where s.id in :ids")
+    int deleteByIdInBulk(Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Session s where s.work.id = :workId")
+    int deleteByWorkIdInBulk(Long workId);
+
+    /**
+     * Reading activity bucketed by day, ISO week or month (granularity = DAY | WEEK | MONTH)
+     * and work type, aggregated in MySQL. Range is [from, to) on started_at.
+     * The range scan is served by idx_sessions_user_started_id, which covers every sessions column used here.
+     * Callers must consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE))
+    @Query(value = """
+            select case :granularity
+                       when 'WEEK' then timestampadd(day, -weekday(s.started_at), cast(s.started_at as date))
+                       when 'MONTH' then timestampadd(day, 1 - dayofmonth(s.started_at), cast(s.started_at as date))
+                       else cast(s.started_at as date)
+                   end as bucket,
+                   w.type as type,
+                   coalesce(sum(s.minutes), 0) as minutes,
+                   coalesce(sum(s.units_completed), 0) as unitsCompleted,
+                   count(*) as sessionCount
+            from sessions s
+            join works w on w.work_id = s.work_id
+            where s.user_id = :userId
+              and s.started_at >= :from
+              and s.started_at < :to
+            group by bucket, w.type
+            order by bucket, w.type
+            """, nativeQuery = true)
+    Stream<ActivityRow> streamActivity(Long userId, String granularity, Instant from, Instant to);
+
+    /**
+     * The user's session totals per UTC day and work, for rebuilding the rollups. A plain
+     * SELECT, so on MySQL it is a non-locking consistent read (INSERT ... SELECT would lock
+     * the rows it reads, other transactions' uncommitted sessions included).
+     */
+    @Query(value = """
+            select cast(s.started_at as date) as day,
+                   s.work_id as workId,
+                   coalesce(sum(s.minutes), 0) as minutes,
+                   coalesce(sum(s.units_completed), 0) as unitsCompleted,
+                   count(*) as sessionCount
+            from sessions s
+            where s.user_id = :userId
+            group by cast(s.started_at as date), s.work_id
+            """, nativeQuery = true)
+    List<RollupRow> sumByDayAndWork(Long userId);
+
+    /**
+     * Row shape of sumByDayAndWork.
+     */
+    interface RollupRow {
+        LocalDate getDay();
+
+        Number getWorkId();
+
+        Number getMinutes();
+
+        Number getUnitsCompleted();
+
+        Number getSessionCount();
+    }
+
+    /**
+     * Row shape of streamActivity.
+     */
+    interface ActivityRow {
+        LocalDate getBucket();
+
+        String getType();
+
+        Number getMinutes();
+
+        Number getUnitsCompleted();
+
+        Number getSessionCount();
+    }
+}
@@ -0,0 +1,17 @@
+package org.saper.shelflife.repository;
+
+/**
+ * Hint values for repository methods that return a Stream.
+ */
+public final class StreamingQueries {
+
+    /**
+     * Fetch size that makes MySQL Connector/J stream a forward-only, read-only result set row
+     * by row instead of buffering all of it on the client. The connection is busy until the
+     * stream is closed, so consume it fully (or close it) before running another query.
+     */
+    public static final String ROW_BY_ROW_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
+    private StreamingQueries() {
+    }
+}
@@ -2,6 +2,9 @@ package org.saper.shelflife.repository;
 
 import org.saper.shelflife.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -14,4 +17,20 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    /**
+     * Locks the user's row until the transaction ends, so per-user check-then-insert steps
+     * (one active import at a time) run one after another.
+     */
+    @Query(value = "select user_id from users where user_id = :userId for update", nativeQuery = true)
+    Optional<Long> lockById(Long userId);
+
+    /**
+     * Swaps in a re-encoded hash, but only if the stored one is still the hash we checked.
+     * Runs in its own transaction so login never holds a connection while hashing.
+     */
+    @Transactional
+    @Modifying
+    @Query("update User u set u.passwordHash = :newHash where u.id = :userId and u.passwordHash = :oldHash")
+    int replacePasswordHash(Long userId, String oldHash, String newHash);
 }
@@ -0,0 +1,42 @@
+package org.saper.shelflife.repository;
+
+import org.saper.shelflife.model.UserStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface UserStatsRepository extends JpaRepository<UserStats, Long> {
+
+    /**
+     * Atomically adds (or, with negative values, subtracts) a delta to the user's totals.
+     */
+    @Modifying
+    @Query(value = """
+            insert into user_stats (user_id, minutes, units_completed, session_count)
+            values (:userId, :minutes, :units, :sessions)
+            on duplicate key update
+                minutes = minutes + :minutes,
+                units_completed = units_completed + :units,
+                session_count = session_count + :sessions
+            """, nativeQuery = true)
+    void addDelta(Long userId, long minutes, long units, long sessions);
+
+    /**
+     * Inserts an empty totals row unless the user has one, as the claim to build their rollups.
+     * A concurrent claim for the same user waits on the key until the claiming transaction
+     * ends, then finds the row. INSERT IGNORE rather than "on duplicate key update", whose
+     * affected-row count Connector/J reports as 1 for an existing row too.
+     *
+     * @return 1 if this call inserted the row, 0 if it already existed
+     */
+    @Modifying
+    @Query(value = """
+            insert ignore into user_stats (user_id, minutes, units_completed, session_count)
+            values (:userId, 0, 0, 0)
+            """, nativeQuery = true)
+    int claim(Long userId);
+
+    @Modifying
+    @Query("delete from UserStats u where u.userId = :userId")
+    void deleteByUserIdInBulk(Long userId);
+}
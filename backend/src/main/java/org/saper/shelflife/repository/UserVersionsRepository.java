@@ -0,0 +1,23 @@
+package org.saper.shelflife.repository;
+
+import org.saper.shelflife.model.UserVersions;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface UserVersionsRepository extends JpaRepository<UserVersions, Long> {
+
+    /**
+     * Atomically increments the user's counters, creating the row on first write.
+     */
+    @Modifying
+    @Query(value = """
+            insert into user_versions (user_id, works_version, sessions_version, reviews_version)
+            values (:userId, :works, :sessions, :reviews)
+            on duplicate key update
+                works_version = works_version + :works,
+                sessions_version = sessions_version + :sessions,
+                reviews_version = reviews_version + :reviews
+            """, nativeQuery = true)
+    void bump(Long userId, int works, int sessions, int reviews);
+}
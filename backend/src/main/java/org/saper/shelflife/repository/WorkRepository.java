@@ -1,13 +1,24 @@
 package org.saper.shelflife.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.saper.shelflife.dto.WorkDetailDto;
+import org.saper.shelflife.dto.WorkSummaryDto;
 import org.saper.shelflife.model.Work;
 import org.saper.shelflife.model.WorkStatus;
 import org.saper.shelflife.model.WorkType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 // import org.springframework.data.domain.Page;
 // import org.springframework.data.domain.Pageable;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface WorkRepository extends JpaRepository<Work, Long> {
 
@@ -32,6 +43,172 @@ public interface WorkRepository extends JpaRepository<Work, Long> {
      */
     Optional<Work> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * Ownership check when only the answer is needed (select of the id with a limit, no entity).
+     */
+    boolean existsByIdAndUserId(Long id, Long userId);
+
+    /**
+     * Locks the works row until the transaction ends. Inserting a session checks its work_id
+     * against this row, so while it is held no session can be added to the work.
+     */
+    @Query(value = "select work_id from works where work_id = :workId for update", nativeQuery = true)
+    Optional<Long> lockById(Long workId);
+
+    /**
+     * Deletes just the works row. Its sessions and review must already be gone:
+     * bulk deletes skip the entity cascade.
+     */
+    @Modifying
+    @Query("delete from Work w where w.id = :workId")
+    int deleteByIdInBulk(Long workId);
+
+    /**
+     * Which of the given work ids belong to the user, in one query (ids only, no entities).
+     */
+    @Query("select w.id from Work w where w.user.id = :userId and w.id in :ids")
+    List<Long> findIdsOwnedByUser(Long userId, Collection<Long> ids);
+
+    /**
+     * Library summaries selected straight into WorkSummaryDto.
+     * Skips the persistence context: no managed entities, snapshots or lazy proxies.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.WorkSummaryDto(
+                w.id, w.title, w.creator, w.type, w.genre, w.status)
+            from Work w
+            where w.user.id = :userId
+            """)
+    List<WorkSummaryDto> findSummariesByUserId(Long userId);
+
+    /**
+     * Ranked full-text search over the user's works (title, creator, genre) and reviews (title, body),
+     * one row per work, best first. query is a boolean-mode expression (see SearchQuery).
+     * Matches on the work itself weigh double, so a title hit beats a passing mention in a review.
+     * (afterScore, afterId) is the keyset cursor; pass a score above any real one to start.
+     * Needs the ft_works_text / ft_reviews_text FULLTEXT indexes (FullTextIndexInitializer).
+     */
+    @Query(value = """
+            select w.work_id as workId,
+                   w.title as title,
+                   w.creator as creator,
+                   w.type as type,
+                   w.genre as genre,
+                   w.status as status,
+                   round(sum(h.relevance), 6) as score,
+                   max(h.in_review) as matchedReview
+            from (
+                select wt.work_id, 2 * match(wt.title, wt.creator, wt.genre) against (:query in boolean mode) as relevance, 0 as in_review
+                from works wt
+                where wt.user_id = :userId
+                  and match(wt.title, wt.creator, wt.genre) against (:query in boolean mode)
+                union all
+                select r.work_id, match(r.title, r.body) against (:query in boolean mode), 1
+                from reviews r
+                where r.user_id = :userId
+                  and match(r.title, r.body) against (:query in boolean mode)
+            ) h
+            join works w on w.work_id = h.work_id
+            group by w.work_id, w.title, w.creator, w.type, w.genre, w.status
+            having score < :afterScore
+                or (score = :afterScore and w.work_id < :afterId)
+            order by score desc, w.work_id desc
+            limit :limit
+            """, nativeQuery = true)
+    List<SearchRow> search(Long userId, String query, BigDecimal afterScore, Long afterId, int limit);
+
+    /**
+     * Row shape of search.
+     */
+    interface SearchRow {
+        Number getWorkId();
+
+        String getTitle();
+
+        String getCreator();
+
+        String getType();
+
+        String getGenre();
+
+        String getStatus();
+
+        BigDecimal getScore();
+
+        Number getMatchedReview();
+    }
+
+    /**
+     * Every work of the user as WorkDetailDto, in id order, streamed row by row (for exports).
+     * Callers must consume the stream inside a transaction and close it.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.ROW_BY_ROW_FETCH_SIZE))
+    @Query("""
+            select new org.saper.shelflife.dto.WorkDetailDto(
+                w.id, w.title, w.type, w.creator, w.genre, w.status,
+                w.totalUnits, w.coverUrl, w.startedAt, w.finishedAt)
+            from Work w
+            where w.user.id = :userId
+            order by w.id
+            """)
+    Stream<WorkDetailDto> streamDetailsByUserId(Long userId);
+
+    /**
+     * Filtered library summaries; null parameters don't filter.
+     * titlePattern is a LIKE pattern using '!' as the escape character (see WorkFilter).
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.WorkSummaryDto(
+                w.id, w.title, w.creator, w.type, w.genre, w.status)
+            from Work w
+            where w.user.id = :userId
+              and (:status is null or w.status = :status)
+              and (:type is null or w.type = :type)
+              and (:genre is null or w.genre = :genre)
+              and (:creator is null or w.creator = :creator)
+              and (:titlePattern is null or w.title like :titlePattern escape '!')
+            """)
+    List<WorkSummaryDto> findFilteredSummaries(
+            Long userId,
+            WorkStatus status,
+            WorkType type,
+            String genre,
+            String creator,
+            String titlePattern
+    );
+
+    /**
+     * Keyset page of a user's work summaries within one status bucket, ordered by (title, id).
+     * Rows strictly after (afterTitle, afterId) are returned; pass ("", 0) for the first page.
+     * Title comparison follows the column collation, so it is case-insensitive on utf8mb4_*_ci.
+     * Served by idx_works_user_status_title without a filesort; the optional filters
+     * (null = no filter) are applied on top of that range scan.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.WorkSummaryDto(
+                w.id, w.title, w.creator, w.type, w.genre, w.status)
+            from Work w
+            where w.user.id = :userId
+              and w.status = :status
+              and (w.title > :afterTitle or (w.title = :afterTitle and w.id > :afterId))
+              and (:type is null or w.type = :type)
+              and (:genre is null or w.genre = :genre)
+              and (:creator is null or w.creator = :creator)
+              and (:titlePattern is null or w.title like :titlePattern escape '!')
+            order by w.title, w.id
+            """)
+    List<WorkSummaryDto> findSummaryPageByUserIdAndStatus(
+            Long userId,
+            WorkStatus status,
+            WorkType type,
+            String genre,
+            String creator,
+            String titlePattern,
+            String afterTitle,
+            Long afterId,
+            Limit limit
+    );
+
     // For future pagination support
     // Page<Work> findByUserId(Long userId, Pageable pageable);
     // Page<Work> findByUserIdAndStatus(Long userId, WorkStatus status, Pageable pageable);
@@ -0,0 +1,55 @@
+package org.saper.shelflife.repository;
+
+import org.saper.shelflife.dto.WorkStatsDto;
+import org.saper.shelflife.model.WorkStats;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface WorkStatsRepository extends JpaRepository<WorkStats, Long> {
+
+    /**
+     * Atomically adds (or, with negative values, subtracts) a delta to one work's totals.
+     */
+    @Modifying
+    @Query(value = """
+            insert into work_stats (work_id, user_id, minutes, units_completed, session_count)
+            values (:workId, :userId, :minutes, :units, :sessions)
+            on duplicate key update
+                minutes = minutes + :minutes,
+                units_completed = units_completed + :units,
+                session_count = session_count + :sessions
+            """, nativeQuery = true)
+    void addDelta(Long workId, Long userId, long minutes, long units, long sessions);
+
+    @Modifying
+    @Query("delete from WorkStats ws where ws.userId = :userId")
+    void deleteByUserIdInBulk(Long userId);
+
+    @Modifying
+    @Query("delete from WorkStats ws where ws.workId = :workId")
+    void deleteByWorkIdInBulk(Long workId);
+
+    /**
+     * Drops a work's row once its last session has been removed or moved away.
+     */
+    @Modifying
+    @Query("delete from WorkStats ws where ws.workId = :workId and ws.sessionCount <= 0")
+    void deleteIfEmpty(Long workId);
+
+    /**
+     * The user's most-read works by minutes.
+     */
+    @Query("""
+            select new org.saper.shelflife.dto.WorkStatsDto(
+                ws.workId, w.title, ws.minutes, ws.unitsCompleted, ws.sessionCount)
+            from WorkStats ws
+            join Work w on w.id = ws.workId
+            where ws.userId = :userId
+            order by ws.minutes desc, ws.workId
+            """)
+    List<WorkStatsDto> findTopByMinutes(Long userId, Limit limit);
+}
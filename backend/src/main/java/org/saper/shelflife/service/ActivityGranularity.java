@@ -0,0 +1,11 @@
+package org.saper.shelflife.service;
+
+/**
+ * Bucket size for the reading activity time series.
+ * Weeks start on Monday (ISO); all buckets are in UTC.
+ */
+public enum ActivityGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -0,0 +1,49 @@
+package org.saper.shelflife.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Validated parameters for the activity time series: an inclusive range of UTC days plus a bucket size.
+ * Built up front on the request thread, so bad input fails with a 400 before any output is streamed.
+ */
+public record ActivityQuery(
+        LocalDate from,
+        LocalDate to,
+        ActivityGranularity granularity
+) {
+
+    public static ActivityQuery of(LocalDate from, LocalDate to, ActivityGranularity granularity) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(StatsService.DEFAULT_DAYS - 1);
+
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= StatsService.MAX_DAYS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Date range may span at most " + StatsService.MAX_DAYS + " days"
+            );
+        }
+
+        return new ActivityQuery(
+                start,
+                end,
+                granularity != null ? granularity : ActivityGranularity.DAY
+        );
+    }
+
+    Instant startInclusive() {
+        return from.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    Instant endExclusive() {
+        return to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
@@ -6,8 +6,8 @@ import org.saper.shelflife.dto.UserProfileDto;
 import org.saper.shelflife.model.User;
 import org.saper.shelflife.repository.UserRepository;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -16,19 +16,27 @@ import org.springframework.web.server.ResponseStatusException;
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final UserService userService;
+    private final TokenService tokenService;
 
     public AuthService(
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder,
-            UserService userService
+            PasswordHasher passwordHasher,
+            UserService userService,
+            TokenService tokenService
     ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.userService = userService;
+        this.tokenService = tokenService;
     }
 
+    /**
+     * Runs outside a transaction: the repository calls each take a connection only briefly,
+     * so none is held while the (deliberately slow) password check runs.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponseDto login(LoginRequestDto dto) {
         String identifier = dto.usernameOrEmail() != null
                 ? dto.usernameOrEmail().trim()
@@ -54,16 +62,24 @@ public class AuthService {
                     .orElseThrow(this::invalidCredentials);
         }
 
-        if (!passwordEncoder.matches(dto.password(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(dto.password(), user.getPasswordHash())) {
             throw invalidCredentials();
         }
 
+        // Cost factor changed since this hash was made: re-encode while we have the password
+        if (passwordHasher.needsRehash(user.getPasswordHash())) {
+            userRepository.replacePasswordHash(
+                    user.getId(),
+                    user.getPasswordHash(),
+                    passwordHasher.encode(dto.password())
+            );
+        }
+
         UserProfileDto profile = userService.getUserProfile(user.getId());
 
-        // TODO: replace with real JWT / session token
-        String demoToken = "demo-token-user-" + user.getId();
+        TokenService.IssuedToken token = tokenService.issue(user.getId());
 
-        return new AuthResponseDto(demoToken, profile);
+        return new AuthResponseDto(token.token(), token.expiresAt(), profile);
     }
 
     private ResponseStatusException invalidCredentials() {
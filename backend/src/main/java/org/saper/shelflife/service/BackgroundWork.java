@@ -0,0 +1,37 @@
+package org.saper.shelflife.service;
+
+/**
+ * Marks database work that runs outside an API request: import workers, the import heartbeat,
+ * background deletes and streaming exports.
+ * <p>
+ * The connection limiter gives such work its own permits, so a few half-hour exports or a
+ * running import can't take the connections API requests need. Without the limiter the mark
+ * does nothing.
+ */
+public final class BackgroundWork {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private BackgroundWork() {
+    }
+
+    /**
+     * Runs the task with the current thread marked as background work.
+     */
+    public static void run(Runnable task) {
+        if (isActive()) {
+            task.run();
+            return;
+        }
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            task.run();
+        } finally {
+            ACTIVE.remove();
+        }
+    }
+
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+}
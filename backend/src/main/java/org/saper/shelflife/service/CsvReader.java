@@ -0,0 +1,145 @@
+package org.saper.shelflife.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal streaming RFC 4180 reader: one record in memory at a time.
+ * Handles quoted fields, doubled quotes, line breaks inside quotes, CRLF and a leading BOM.
+ */
+final class CsvReader implements Closeable {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+
+    private int pushedBack = Integer.MIN_VALUE;
+    private long line = 1;
+    private long recordLine;
+    private boolean started;
+
+    CsvReader(Reader reader, int maxRecordChars) {
+        this.reader = reader;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Next record, or null at end of input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        if (!started) {
+            started = true;
+            int first = read();
+            if (first != '\uFEFF') {
+                unread(first);
+            }
+        }
+
+        int c;
+        do {
+            c = read();
+            if (c == '\r' || c == '\n') {
+                consumeLineEnd(c);
+            }
+        } while (c == '\r' || c == '\n');
+        if (c == EOF) {
+            return null;
+        }
+        unread(c);
+
+        recordLine = line;
+        List<String> record = new ArrayList<>();
+        int recordChars = 0;
+        field.setLength(0);
+        boolean quoted = false;
+        boolean fieldStart = true;
+
+        while (true) {
+            c = read();
+            if (++recordChars > maxRecordChars) {
+                throw new IllegalArgumentException("line " + recordLine + ": record longer than " + maxRecordChars + " characters");
+            }
+
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IllegalArgumentException("line " + recordLine + ": unterminated quoted field");
+                }
+                if (c == '"') {
+                    int after = read();
+                    if (after == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(after);
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\r' || c == '\n' || c == EOF) {
+                record.add(field.toString());
+                if (c != EOF) {
+                    consumeLineEnd(c);
+                }
+                return record;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+        }
+    }
+
+    /**
+     * Line number the last record returned by {@link #next()} started on (1-based).
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // ---------- Internal helpers ----------
+
+    private void consumeLineEnd(int c) throws IOException {
+        if (c == '\r') {
+            int after = read();
+            if (after != '\n') {
+                unread(after);
+            }
+        }
+        line++;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != Integer.MIN_VALUE) {
+            int c = pushedBack;
+            pushedBack = Integer.MIN_VALUE;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
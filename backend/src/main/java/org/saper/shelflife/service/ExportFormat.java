@@ -0,0 +1,11 @@
+package org.saper.shelflife.service;
+
+/**
+ * Layout of a full-account export.
+ */
+public enum ExportFormat {
+    /** One JSON object per line: {"type": "...", "data": {...}} */
+    NDJSON,
+    /** profile.json plus works.ndjson, sessions.ndjson and reviews.ndjson */
+    ZIP
+}
@@ -0,0 +1,213 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.dto.ReviewDto;
+import org.saper.shelflife.dto.SessionDto;
+import org.saper.shelflife.dto.UserProfileDto;
+import org.saper.shelflife.dto.WorkDetailDto;
+import org.saper.shelflife.repository.ReviewRepository;
+import org.saper.shelflife.repository.SessionRepository;
+import org.saper.shelflife.repository.WorkRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Full-account export (profile, works, sessions, reviews) written straight to an output stream.
+ * <p>
+ * Rows come from forward-only streaming cursors as DTO projections, so nothing is collected in
+ * the heap or the persistence context and memory stays flat however large the account is.
+ * Everything is read in one read-only transaction, so the export is a consistent snapshot.
+ * <p>
+ * A streaming cursor keeps its database connection for the whole download, so at most
+ * {@code max-concurrent} exports run at once; beyond that callers get a 503 with Retry-After.
+ */
+@Service
+public class ExportService {
+
+    public static final int EXPORT_VERSION = 1;
+
+    private final UserService userService;
+    private final WorkRepository workRepository;
+    private final SessionRepository sessionRepository;
+    private final ReviewRepository reviewRepository;
+    private final ObjectWriter writer;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore permits;
+    private final long retryAfterSeconds;
+
+    public ExportService(UserService userService,
+                         WorkRepository workRepository,
+                         SessionRepository sessionRepository,
+                         ReviewRepository reviewRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${shelflife.export.max-concurrent:4}") int maxConcurrent,
+                         @Value("${shelflife.export.retry-after-seconds:10}") long retryAfterSeconds) {
+        this.userService = userService;
+        this.workRepository = workRepository;
+        this.sessionRepository = sessionRepository;
+        this.reviewRepository = reviewRepository;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.permits = new Semaphore(maxConcurrent);
+
+        // One value per line; the caller owns the target stream (the response or a zip entry)
+        this.writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET);
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Reserves an export slot and returns the writer for it. The slot is released when
+     * {@link Export#writeTo} finishes, successfully or not, or by {@link Export#close} if the
+     * body is never written.
+     *
+     * @throws ServiceBusyException when the maximum number of exports is already running
+     */
+    public Export openExport(Long userId, ExportFormat format) {
+        // Fail fast on unknown users before the response is committed
+        UserProfileDto profile = userService.getUserProfile(userId);
+
+        if (!permits.tryAcquire()) {
+            throw new ServiceBusyException("Too many exports running right now, please retry shortly", retryAfterSeconds);
+        }
+
+        return new Export(out -> {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try {
+                    if (format == ExportFormat.ZIP) {
+                        writeZip(userId, profile, out);
+                    } else {
+                        writeNdjson(userId, profile, out);
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        });
+    }
+
+    /**
+     * A reserved export slot, written at most once.
+     */
+    public final class Export implements AutoCloseable {
+
+        private final Body body;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private Export(Body body) {
+            this.body = body;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new IllegalStateException("Export already written or closed");
+            }
+            try {
+                BackgroundWork.run(() -> body.write(out));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            } finally {
+                permits.release();
+            }
+        }
+
+        /**
+         * Frees the slot if {@link #writeTo} never ran (the request failed or timed out before
+         * the body was written); otherwise writeTo frees it when it ends.
+         */
+        @Override
+        public void close() {
+            if (claimed.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(OutputStream out);
+    }
+
+    // ---------- Formats ----------
+
+    private void writeNdjson(Long userId, UserProfileDto profile, OutputStream out) {
+        // On failure the generator is left unclosed: the client sees a truncated stream, not a clean end
+        JsonGenerator gen = writer.createGenerator(out);
+        writeRecord(gen, "meta", new ExportMeta(EXPORT_VERSION, Instant.now()));
+        writeRecord(gen, "profile", profile);
+        try (Stream<WorkDetailDto> works = workRepository.streamDetailsByUserId(userId)) {
+            works.forEach(w -> writeRecord(gen, "work", w));
+        }
+        try (Stream<SessionDto> sessions = sessionRepository.streamAllByUserId(userId)) {
+            sessions.forEach(s -> writeRecord(gen, "session", s));
+        }
+        try (Stream<ReviewDto> reviews = reviewRepository.streamAllByUserId(userId)) {
+            reviews.forEach(r -> writeRecord(gen, "review", r));
+        }
+        gen.writeRaw('\n');
+        gen.close();
+    }
+
+    private void writeZip(Long userId, UserProfileDto profile, OutputStream out) throws IOException {
+        // Not closed on failure either: without the central directory the archive won't open
+        ZipOutputStream zip = new ZipOutputStream(out);
+
+        zip.putNextEntry(new ZipEntry("profile.json"));
+        writer.writeValue(zip, new ExportProfile(EXPORT_VERSION, Instant.now(), profile));
+        zip.closeEntry();
+
+        try (Stream<WorkDetailDto> works = workRepository.streamDetailsByUserId(userId)) {
+            writeNdjsonEntry(zip, "works.ndjson", works);
+        }
+        try (Stream<SessionDto> sessions = sessionRepository.streamAllByUserId(userId)) {
+            writeNdjsonEntry(zip, "sessions.ndjson", sessions);
+        }
+        try (Stream<ReviewDto> reviews = reviewRepository.streamAllByUserId(userId)) {
+            writeNdjsonEntry(zip, "reviews.ndjson", reviews);
+        }
+
+        zip.finish();
+    }
+
+    // ---------- Internal helpers ----------
+
+    private void writeNdjsonEntry(ZipOutputStream zip, String name, Stream<?> rows) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        JsonGenerator gen = writer.createGenerator(zip);
+        rows.forEach(gen::writePOJO);
+        gen.writeRaw('\n');
+        gen.close();
+        zip.closeEntry();
+    }
+
+    private static void writeRecord(JsonGenerator gen, String type, Object data) {
+        gen.writeStartObject();
+        gen.writeStringProperty("type", type);
+        gen.writePOJOProperty("data", data);
+        gen.writeEndObject();
+    }
+
+    private record ExportMeta(int version, Instant exportedAt) {
+    }
+
+    private record ExportProfile(int version, Instant exportedAt, UserProfileDto user) {
+    }
+}
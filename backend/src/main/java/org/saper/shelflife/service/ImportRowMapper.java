@@ -0,0 +1,261 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.model.ImportFormat;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Turns one CSV record of an import file into a work (and optional review).
+ * Column names are matched case-insensitively, ignoring spaces, '_' and '-'.
+ * Bad values throw IllegalArgumentException with a message fit to show the user.
+ */
+final class ImportRowMapper {
+
+    private static final DateTimeFormatter GOODREADS_DATE = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    /**
+     * A mapped row. rating is null when the row carries no review.
+     */
+    record ImportRow(
+            WorkCreateUpdateDto work,
+            Integer rating,
+            String reviewTitle,
+            String reviewBody,
+            boolean privateReview
+    ) {
+    }
+
+    private final ImportFormat format;
+    private final WorkStatus defaultStatus;
+    private final Map<String, Integer> columns = new HashMap<>();
+
+    /**
+     * @param defaultStatus status for rows whose file doesn't say (plain CSV without a status
+     *                      column, Letterboxd); null means TO_EXPLORE for CSV and FINISHED for Letterboxd
+     */
+    ImportRowMapper(ImportFormat format, List<String> header, WorkStatus defaultStatus) {
+        this.format = format;
+        for (int i = 0; i < header.size(); i++) {
+            columns.putIfAbsent(normalize(header.get(i)), i);
+        }
+
+        if (defaultStatus != null) {
+            this.defaultStatus = defaultStatus;
+        } else {
+            this.defaultStatus = format == ImportFormat.LETTERBOXD ? WorkStatus.FINISHED : WorkStatus.TO_EXPLORE;
+        }
+
+        String titleColumn = switch (format) {
+            case CSV, GOODREADS -> "title";
+            case LETTERBOXD -> "name";
+        };
+        if (!columns.containsKey(titleColumn)) {
+            throw new IllegalArgumentException("Missing '" + titleColumn + "' column for " + format + " import");
+        }
+    }
+
+    /**
+     * Guesses the format from the header row: Goodreads and Letterboxd have distinctive columns.
+     */
+    static ImportFormat detect(List<String> header) {
+        boolean goodreads = false;
+        boolean letterboxd = false;
+        for (String column : header) {
+            String name = normalize(column);
+            goodreads |= name.equals("exclusiveshelf") || name.equals("bookid");
+            letterboxd |= name.equals("letterboxduri");
+        }
+        if (goodreads) return ImportFormat.GOODREADS;
+        if (letterboxd) return ImportFormat.LETTERBOXD;
+        return ImportFormat.CSV;
+    }
+
+    ImportRow map(List<String> record) {
+        return switch (format) {
+            case CSV -> mapCsv(record);
+            case GOODREADS -> mapGoodreads(record);
+            case LETTERBOXD -> mapLetterboxd(record);
+        };
+    }
+
+    // ---------- Formats ----------
+
+    private ImportRow mapCsv(List<String> record) {
+        WorkStatus status = parseEnum(WorkStatus.class, "status", value(record, "status"));
+        if (status == null) {
+            status = defaultStatus;
+        }
+
+        String creator = value(record, "creator");
+        if (creator == null) {
+            creator = value(record, "author");
+        }
+        String totalUnits = value(record, "totalunits");
+        if (totalUnits == null) {
+            totalUnits = value(record, "pages");
+        }
+
+        WorkCreateUpdateDto work = new WorkCreateUpdateDto(
+                value(record, "title"),
+                orDefault(parseEnum(WorkType.class, "type", value(record, "type")), WorkType.BOOK),
+                creator,
+                value(record, "genre"),
+                status,
+                parseInt("totalUnits", totalUnits),
+                value(record, "coverurl"),
+                parseDate("startedAt", value(record, "startedat"), DateTimeFormatter.ISO_LOCAL_DATE),
+                parseDate("finishedAt", value(record, "finishedat"), DateTimeFormatter.ISO_LOCAL_DATE)
+        );
+
+        Integer rating = parseRating(value(record, "rating"));
+        return new ImportRow(
+                work,
+                rating,
+                value(record, "reviewtitle"),
+                value(record, "review"),
+                Boolean.parseBoolean(value(record, "private"))
+        );
+    }
+
+    private ImportRow mapGoodreads(List<String> record) {
+        // Exclusive Shelf is the reading state; any custom exclusive shelf counts as to-read
+        String shelf = value(record, "exclusiveshelf");
+        WorkStatus status;
+        if ("read".equalsIgnoreCase(shelf)) {
+            status = WorkStatus.FINISHED;
+        } else if ("currently-reading".equalsIgnoreCase(shelf)) {
+            status = WorkStatus.IN_PROGRESS;
+        } else if (shelf == null) {
+            status = defaultStatus;
+        } else {
+            status = WorkStatus.TO_EXPLORE;
+        }
+
+        Integer pages = parseInt("Number of Pages", value(record, "numberofpages"));
+        LocalDate dateRead = parseDate("Date Read", value(record, "dateread"), GOODREADS_DATE);
+
+        WorkCreateUpdateDto work = new WorkCreateUpdateDto(
+                value(record, "title"),
+                WorkType.BOOK,
+                value(record, "author"),
+                null,
+                status,
+                pages != null && pages > 0 ? pages : null,
+                null,
+                null,
+                status == WorkStatus.FINISHED ? dateRead : null
+        );
+
+        // "My Rating" is 0 when unrated; reviews are HTML with <br/> line breaks
+        Integer rating = parseRating(value(record, "myrating"));
+        String review = value(record, "myreview");
+        if (review != null) {
+            review = review.replaceAll("(?i)<br\\s*/?>", "\n");
+        }
+        return new ImportRow(work, rating, null, review, false);
+    }
+
+    private ImportRow mapLetterboxd(List<String> record) {
+        // diary.csv has "Watched Date"; the other files only have the date it was logged
+        LocalDate watched = parseDate("Watched Date", value(record, "watcheddate"), DateTimeFormatter.ISO_LOCAL_DATE);
+        if (watched == null) {
+            watched = parseDate("Date", value(record, "date"), DateTimeFormatter.ISO_LOCAL_DATE);
+        }
+
+        WorkCreateUpdateDto work = new WorkCreateUpdateDto(
+                value(record, "name"),
+                WorkType.MOVIE,
+                null,
+                null,
+                defaultStatus,
+                null,
+                null,
+                null,
+                defaultStatus == WorkStatus.FINISHED ? watched : null
+        );
+
+        return new ImportRow(work, parseRating(value(record, "rating")), null, value(record, "review"), false);
+    }
+
+    // ---------- Internal helpers ----------
+
+    private static String normalize(String column) {
+        return column.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Trimmed cell for the column, or null when the column is missing or the cell is blank.
+     */
+    private String value(List<String> record, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String column, String value) {
+        if (value == null) return null;
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace(' ', '_').replace('-', '_'));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(column + ": unknown value '" + value + "'");
+        }
+    }
+
+    private static Integer parseInt(String column, String value) {
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + ": not a whole number '" + value + "'");
+        }
+    }
+
+    private static LocalDate parseDate(String column, String value, DateTimeFormatter formatter) {
+        if (value == null) return null;
+        try {
+            return LocalDate.parse(value, formatter);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException(column + ": not a date '" + value + "'");
+        }
+    }
+
+    /**
+     * 1-5 stars; 0 means unrated, and half stars (Letterboxd) round up.
+     */
+    private static Integer parseRating(String value) {
+        if (value == null) return null;
+
+        BigDecimal rating;
+        try {
+            rating = new BigDecimal(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("rating: not a number '" + value + "'");
+        }
+        if (rating.signum() == 0) {
+            return null;
+        }
+        int stars = rating.setScale(0, RoundingMode.HALF_UP).intValue();
+        if (stars < 1 || stars > 5) {
+            throw new IllegalArgumentException("rating: must be between 1 and 5");
+        }
+        return stars;
+    }
+
+    private static <T> T orDefault(T value, T fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,467 @@
+package org.saper.shelflife.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.saper.shelflife.dto.ImportJobDto;
+import org.saper.shelflife.dto.ReviewCreateUpdateDto;
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.model.ImportFormat;
+import org.saper.shelflife.model.ImportJob;
+import org.saper.shelflife.model.ImportStatus;
+import org.saper.shelflife.model.Review;
+import org.saper.shelflife.model.User;
+import org.saper.shelflife.model.Work;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.repository.ImportJobRepository;
+import org.saper.shelflife.repository.ReviewRepository;
+import org.saper.shelflife.repository.UserRepository;
+import org.saper.shelflife.repository.WorkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Library imports from CSV, Goodreads and Letterboxd exports.
+ * <p>
+ * The upload is spooled to a temp file and parsed as a stream on a small background pool,
+ * so neither the request thread nor the heap ever holds the whole file. Rows are written
+ * in chunks, one transaction each, with batched inserts; the job row's counters are updated
+ * in the same transaction so pollers see exactly what has been committed. A failure keeps
+ * the chunks already written and marks the job FAILED.
+ * <p>
+ * Each instance refreshes the heartbeat of the jobs it holds (queued or running) and fails
+ * jobs whose heartbeat has gone stale, i.e. whose instance died. Live jobs on other
+ * instances are left alone.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final List<ImportStatus> ACTIVE = List.of(ImportStatus.QUEUED, ImportStatus.RUNNING);
+    private static final int MAX_REPORTED_ERRORS = 50;
+    private static final int MAX_RECORD_CHARS = 1_000_000;
+
+    private final ImportJobRepository importJobRepository;
+    private final UserRepository userRepository;
+    private final WorkRepository workRepository;
+    private final ReviewRepository reviewRepository;
+    private final LibraryCache libraryCache;
+    private final VersionService versionService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final long retryAfterSeconds;
+    private final Duration heartbeatInterval;
+    private final Duration staleAfter;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor heartbeat;
+
+    // Jobs queued or running in this process; their heartbeats are refreshed
+    private final Set<Long> held = ConcurrentHashMap.newKeySet();
+
+    public ImportService(ImportJobRepository importJobRepository,
+                         UserRepository userRepository,
+                         WorkRepository workRepository,
+                         ReviewRepository reviewRepository,
+                         LibraryCache libraryCache,
+                         VersionService versionService,
+                         Validator validator,
+                         TransactionTemplate transactionTemplate,
+                         MeterRegistry meterRegistry,
+                         @Value("${shelflife.import.chunk-size:500}") int chunkSize,
+                         @Value("${shelflife.import.threads:2}") int threads,
+                         @Value("${shelflife.import.queue-capacity:16}") int queueCapacity,
+                         @Value("${shelflife.import.retry-after-seconds:30}") long retryAfterSeconds,
+                         @Value("${shelflife.import.heartbeat-interval:30s}") Duration heartbeatInterval,
+                         @Value("${shelflife.import.stale-after:2m}") Duration staleAfter) {
+        this.importJobRepository = importJobRepository;
+        this.userRepository = userRepository;
+        this.workRepository = workRepository;
+        this.reviewRepository = reviewRepository;
+        this.libraryCache = libraryCache;
+        this.versionService = versionService;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.heartbeatInterval = heartbeatInterval;
+        this.staleAfter = staleAfter;
+
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("library-import-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        new ExecutorServiceMetrics(executor, "library-import", List.of()).bindTo(meterRegistry);
+
+        this.heartbeat = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("library-import-heartbeat-"));
+    }
+
+    // ---------- Queries ----------
+
+    @Transactional(readOnly = true)
+    public ImportJobDto getJob(Long userId, Long jobId) {
+        return importJobRepository.findByIdAndUserId(jobId, userId)
+                .map(this::toDto)
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Import not found"
+                ));
+    }
+
+    /**
+     * The user's 20 most recent imports, newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<ImportJobDto> getJobsForUser(Long userId) {
+        return importJobRepository.findTop20ByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(this::toDto)
+                .toList();
+    }
+
+    // ---------- Commands ----------
+
+    /**
+     * Queues an import of the uploaded file and returns the job straight away.
+     *
+     * @param format        null to detect from the header row
+     * @param defaultStatus status for rows whose file doesn't carry one (e.g. Letterboxd watchlist.csv)
+     */
+    public ImportJobDto startImport(Long userId, MultipartFile file, ImportFormat format, WorkStatus defaultStatus) {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "File is required");
+        }
+
+        // One import per user at a time keeps duplicate detection simple and the pool fair
+        ImportJob job = transactionTemplate.execute(status -> {
+            // Locked first, so two uploads can't both pass the check before either job is
+            // inserted; the check's snapshot is taken after the lock, so it sees the other's job
+            userRepository.lockById(userId);
+            if (importJobRepository.existsByUserIdAndStatusIn(userId, ACTIVE)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "An import is already in progress");
+            }
+            return importJobRepository.save(ImportJob.create(
+                    userRepository.getReferenceById(userId),
+                    format,
+                    truncate(file.getOriginalFilename(), 255)
+            ));
+        });
+
+        Path spooled = null;
+        try {
+            // The multipart temp file disappears with the request; keep our own copy for the worker
+            spooled = Files.createTempFile("shelflife-import-", ".csv");
+            file.transferTo(spooled);
+
+            Path source = spooled;
+            held.add(job.getId());
+            executor.execute(() -> BackgroundWork.run(() -> run(job.getId(), userId, source, format, defaultStatus)));
+            return toDto(job);
+        } catch (IOException | RuntimeException ex) {
+            held.remove(job.getId());
+            deleteQuietly(spooled);
+            importJobRepository.deleteById(job.getId());
+            if (ex instanceof RejectedExecutionException) {
+                throw new ServiceBusyException("Too many imports running right now, please retry shortly", retryAfterSeconds);
+            }
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not store upload", ex);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startHeartbeat() {
+        // Runs once right away, which also fails the jobs a previous process left behind
+        heartbeat.scheduleWithFixedDelay(() -> BackgroundWork.run(this::beat), 0, heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    // ---------- Worker ----------
+
+    private void run(Long jobId, Long userId, Path file, ImportFormat requestedFormat, WorkStatus defaultStatus) {
+        Progress progress = new Progress();
+        try (CsvReader csv = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), MAX_RECORD_CHARS)) {
+            List<String> header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("File is empty");
+            }
+
+            ImportFormat format = requestedFormat != null ? requestedFormat : ImportRowMapper.detect(header);
+            ImportRowMapper mapper = new ImportRowMapper(format, header, defaultStatus);
+            transactionTemplate.executeWithoutResult(status -> {
+                ImportJob job = importJobRepository.getReferenceById(jobId);
+                job.setFormat(format);
+                job.setStatus(ImportStatus.RUNNING);
+                job.setStartedAt(Instant.now());
+            });
+
+            // Works already in the library (and earlier rows of this file) are skipped, so a
+            // re-upload or a Letterboxd diary with rewatches doesn't create copies
+            Set<String> seen = transactionTemplate.execute(status ->
+                    workRepository.findSummariesByUserId(userId).stream()
+                            .map(w -> dedupeKey(w.title(), w.creator(), w.type()))
+                            .collect(Collectors.toCollection(HashSet::new)));
+
+            List<ImportRowMapper.ImportRow> chunk = new ArrayList<>(chunkSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                progress.rowsRead++;
+                ImportRowMapper.ImportRow row;
+                try {
+                    row = mapper.map(record);
+                    validate(row);
+                } catch (IllegalArgumentException ex) {
+                    progress.reject(csv.recordLine(), ex.getMessage());
+                    continue;
+                }
+
+                WorkCreateUpdateDto work = row.work();
+                if (!seen.add(dedupeKey(work.title(), work.creator(), work.type()))) {
+                    progress.duplicates++;
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(jobId, userId, chunk, progress);
+                    chunk.clear();
+                }
+            }
+            writeChunk(jobId, userId, chunk, progress);
+
+            finish(jobId, ImportStatus.COMPLETED, progress, null);
+        } catch (Exception ex) {
+            // Parse errors carry a user-facing message; anything else is logged, not echoed
+            String reason = ex instanceof IllegalArgumentException
+                    ? ex.getMessage()
+                    : "Import stopped unexpectedly";
+            if (!(ex instanceof IllegalArgumentException)) {
+                log.error("Import {} failed", jobId, ex);
+            }
+            finish(jobId, ImportStatus.FAILED, progress, reason);
+        } finally {
+            held.remove(jobId);
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Inserts one chunk and records progress, all in one transaction.
+     */
+    private void writeChunk(Long jobId, Long userId, List<ImportRowMapper.ImportRow> rows, Progress progress) {
+        int[] created = transactionTemplate.execute(status -> {
+            User user = userRepository.getReferenceById(userId);
+            List<Work> works = new ArrayList<>(rows.size());
+            List<Review> reviews = new ArrayList<>();
+
+            for (ImportRowMapper.ImportRow row : rows) {
+                WorkCreateUpdateDto dto = row.work();
+                Work work = Work.createForUser(user, dto.title(), dto.type(), dto.status());
+                work.setCreator(dto.creator());
+                work.setGenre(dto.genre());
+                work.setTotalUnits(dto.totalUnits());
+                work.setCoverUrl(dto.coverUrl());
+                work.setStartedAt(dto.startedAt());
+                work.setFinishedAt(dto.finishedAt());
+                works.add(work);
+
+                if (row.rating() != null) {
+                    reviews.add(Review.create(user, work, row.rating(), row.reviewTitle(), row.reviewBody(), row.privateReview()));
+                }
+            }
+
+            // Pooled ids + JDBC batching: a chunk is a handful of multi-row INSERTs
+            workRepository.saveAll(works);
+            reviewRepository.saveAll(reviews);
+
+            // The job row gets the counts including this chunk; the in-memory ones only move
+            // once the chunk has committed, so a rolled-back chunk is never reported
+            progress.copyTo(importJobRepository.getReferenceById(jobId), works.size(), reviews.size());
+
+            if (!works.isEmpty()) {
+                libraryCache.invalidate(userId);
+                versionService.onWorksChanged(userId);
+            }
+            if (!reviews.isEmpty()) {
+                versionService.onReviewsChanged(userId);
+            }
+            return new int[]{works.size(), reviews.size()};
+        });
+
+        progress.worksCreated += created[0];
+        progress.reviewsCreated += created[1];
+    }
+
+    private void finish(Long jobId, ImportStatus outcome, Progress progress, String reason) {
+        if (reason != null) {
+            progress.errors.addFirst(reason);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            ImportJob job = importJobRepository.getReferenceById(jobId);
+            progress.copyTo(job);
+            job.setStatus(outcome);
+            job.setFinishedAt(Instant.now());
+        });
+    }
+
+    /**
+     * Refreshes this process's jobs, then fails jobs that no live instance holds any more
+     * instead of letting clients poll them forever.
+     */
+    void beat() {
+        try {
+            Instant now = Instant.now();
+            if (!held.isEmpty()) {
+                importJobRepository.touch(List.copyOf(held), now);
+            }
+            int failed = importJobRepository.failStale(
+                    "Interrupted by a server restart; please upload the file again", now.minus(staleAfter), now);
+            if (failed > 0) {
+                log.warn("Marked {} interrupted import(s) as failed", failed);
+            }
+        } catch (RuntimeException ex) {
+            // An exception would cancel the schedule; the next beat retries
+            log.warn("Import heartbeat failed", ex);
+        }
+    }
+
+    // ---------- Internal helpers ----------
+
+    /**
+     * Same rules as the API applies to the work and, if the row has one, its review, so a bad
+     * value rejects the row instead of failing the whole chunk at INSERT time.
+     */
+    private void validate(ImportRowMapper.ImportRow row) {
+        List<String> problems = new ArrayList<>(violations(row.work(), ""));
+        if (row.rating() != null) {
+            // workId is assigned on insert; only the review's own fields are checked here
+            ReviewCreateUpdateDto review = new ReviewCreateUpdateDto(
+                    0L, row.rating(), row.reviewTitle(), row.reviewBody(), row.privateReview());
+            problems.addAll(violations(review, "review "));
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException(problems.stream().sorted().collect(Collectors.joining("; ")));
+        }
+    }
+
+    private <T> List<String> violations(T dto, String prefix) {
+        Set<ConstraintViolation<T>> violations = validator.validate(dto);
+        return violations.stream()
+                .map(v -> prefix + v.getPropertyPath() + ": " + v.getMessage())
+                .toList();
+    }
+
+    private static String dedupeKey(String title, String creator, Object type) {
+        return (title != null ? title.trim().toLowerCase(Locale.ROOT) : "")
+                + '\u0000' + (creator != null ? creator.trim().toLowerCase(Locale.ROOT) : "")
+                + '\u0000' + type;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            log.warn("Could not delete import temp file {}", file, ex);
+        }
+    }
+
+    private ImportJobDto toDto(ImportJob job) {
+        List<String> errors = job.getErrors() == null || job.getErrors().isEmpty()
+                ? List.of()
+                : Arrays.asList(job.getErrors().split("\n"));
+        return new ImportJobDto(
+                job.getId(),
+                job.getFormat(),
+                job.getStatus(),
+                job.getFileName(),
+                job.getRowsRead(),
+                job.getWorksCreated(),
+                job.getReviewsCreated(),
+                job.getDuplicates(),
+                job.getRejected(),
+                errors,
+                job.getCreatedAt(),
+                job.getStartedAt(),
+                job.getFinishedAt()
+        );
+    }
+
+    /**
+     * Worker-side counters of committed work; copied onto the job row with each chunk.
+     */
+    private static final class Progress {
+        int rowsRead;
+        int worksCreated;
+        int reviewsCreated;
+        int duplicates;
+        int rejected;
+        final List<String> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + message.replace('\n', ' '));
+            }
+        }
+
+        void copyTo(ImportJob job) {
+            copyTo(job, 0, 0);
+        }
+
+        void copyTo(ImportJob job, int newWorks, int newReviews) {
+            job.setRowsRead(rowsRead);
+            job.setWorksCreated(worksCreated + newWorks);
+            job.setReviewsCreated(reviewsCreated + newReviews);
+            job.setDuplicates(duplicates);
+            job.setRejected(rejected);
+            job.setErrors(errors.isEmpty() ? null : String.join("\n", errors));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.saper.shelflife.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * In-process cache of each user's full, sorted library (the unfiltered GET /api/works list).
+ * <p>
+ * Bounded by the total number of cached works and expired after a TTL as a safety net.
+ * Writers call {@link #invalidate(Long)}; the entry is dropped once their transaction commits,
+ * so a concurrent reader can't re-cache rows that were about to change.
+ * Hit/miss/eviction counts are published as {@code cache.*} meters with {@code cache=library}.
+ * <p>
+ * Entries are futures so a miss is loaded on the caller's thread, outside the map's bin lock:
+ * a plain {@code Cache.get} runs the loader (a JDBC query) inside {@code ConcurrentHashMap.compute},
+ * which pins a virtual thread to its carrier and stalls other keys in the same bin for the
+ * whole query.
+ * <p>
+ * Every load gets a new version number, so holders of data derived from a list (the typeahead
+ * index) can tell it is stale without keeping the list itself.
+ */
+@Component
+public class LibraryCache {
+
+    private final AsyncCache<Long, Library> cache;
+    private final AtomicLong loads = new AtomicLong();
+
+    public LibraryCache(MeterRegistry meterRegistry,
+                        @Value("${shelflife.library-cache.max-works:100000}") long maxWorks,
+                        @Value("${shelflife.library-cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                // +1 so empty libraries still count towards the bound
+                .maximumWeight(maxWorks)
+                .weigher((Long userId, Library library) -> library.works().size() + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "library");
+    }
+
+    /**
+     * Cached library for the user, loading (at most once per key concurrently) on a miss.
+     * The loader runs on the calling thread (so inside its transaction) and must return an
+     * immutable list; concurrent callers for the same user wait for it instead of loading again.
+     */
+    public List<WorkSummaryDto> get(Long userId, Function<Long, List<WorkSummaryDto>> loader) {
+        CompletableFuture<Library> created = new CompletableFuture<>();
+        CompletableFuture<Library> future = cache.get(userId, (id, executor) -> created);
+        if (future != created) {
+            return join(future).works();
+        }
+
+        // Failed futures are dropped by the cache, so the next caller loads again
+        try {
+            List<WorkSummaryDto> works = loader.apply(userId);
+            created.complete(new Library(works, loads.incrementAndGet()));
+            return works;
+        } catch (RuntimeException | Error ex) {
+            created.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Cached library for the user, or null. Unlike {@link #get} this needs no loader, so callers
+     * can skip opening a transaction when the entry is already there.
+     */
+    public List<WorkSummaryDto> getIfPresent(Long userId) {
+        Library library = getLibraryIfPresent(userId);
+        return library == null ? null : library.works();
+    }
+
+    /**
+     * Like {@link #getIfPresent}, with the version of the load that produced the list.
+     */
+    Library getLibraryIfPresent(Long userId) {
+        CompletableFuture<Library> future = cache.getIfPresent(userId);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return null;
+        }
+        return future.join();
+    }
+
+    /**
+     * Drop the user's entry after the current transaction commits (immediately if there is none).
+     * Rolled-back writes leave the cache alone.
+     */
+    public void invalidate(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.synchronous().invalidate(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.synchronous().invalidate(userId);
+            }
+        });
+    }
+
+    // ---------- Internal helpers ----------
+
+    private static Library join(CompletableFuture<Library> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            // Another caller's load failed; surface its exception as if we had run it
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            if (ex.getCause() instanceof Error cause) throw cause;
+            throw ex;
+        }
+    }
+
+    /**
+     * One loaded library list; a different version means a different load.
+     */
+    record Library(List<WorkSummaryDto> works, long version) {
+    }
+}
@@ -0,0 +1,49 @@
+package org.saper.shelflife.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last review on a page: (createdAt, id), newest first. Ids alone don't
+ * follow creation order, as each instance allocates them from its own pooled block.
+ * Encoded as an opaque base64url string so clients don't depend on its shape.
+ */
+record ReviewCursor(Instant createdAt, Long id) {
+
+    static ReviewCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            // id:createdAt (ISO-8601 instant)
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) {
+                throw invalidCursor();
+            }
+
+            return new ReviewCursor(Instant.parse(parts[1]), Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            // Covers bad base64, NumberFormatException and unparseable instants
+            throw invalidCursor();
+        }
+    }
+
+    String encode() {
+        String raw = id + ":" + createdAt;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -1,61 +1,97 @@
 package org.saper.shelflife.service;
 
+import org.saper.shelflife.dto.CursorPageDto;
 import org.saper.shelflife.dto.ReviewCreateUpdateDto;
 import org.saper.shelflife.dto.ReviewDto;
+import org.saper.shelflife.dto.ReviewSummaryDto;
 import org.saper.shelflife.model.Review;
-import org.saper.shelflife.model.User;
-import org.saper.shelflife.model.Work;
 import org.saper.shelflife.repository.ReviewRepository;
 import org.saper.shelflife.repository.UserRepository;
 import org.saper.shelflife.repository.WorkRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Instant;
 import java.util.List;
 
 @Service
 @Transactional
 public class ReviewService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+    public static final int MAX_SNIPPET_LENGTH = 500;
+
     private final ReviewRepository reviewRepository;
     private final UserRepository userRepository;
     private final WorkRepository workRepository;
+    private final VersionService versionService;
 
     public ReviewService(ReviewRepository reviewRepository,
                          UserRepository userRepository,
-                         WorkRepository workRepository) {
+                         WorkRepository workRepository,
+                         VersionService versionService) {
         this.reviewRepository = reviewRepository;
         this.userRepository = userRepository;
         this.workRepository = workRepository;
+        this.versionService = versionService;
     }
 
     // ---------- Queries ----------
 
+    /**
+     * All of the user's reviews for list views, newest first. Bodies are not loaded;
+     * snippetLength > 0 adds that many leading characters of each body, cut in SQL.
+     */
     @Transactional(readOnly = true)
-    public List<ReviewDto> getReviewsForUser(Long userId) {
-        return reviewRepository.findByUserId(userId).stream()
-                .map(this::toDto)
-                .toList();
+    public List<ReviewSummaryDto> getReviewsForUser(Long userId, int snippetLength) {
+        return findSummaries(userId, snippetLength, null, Limit.unlimited());
+    }
+
+    /**
+     * Keyset-paginated variant of {@link #getReviewsForUser}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<ReviewSummaryDto> getReviewPage(Long userId, int limit, String cursor, int snippetLength) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        ReviewCursor after = ReviewCursor.decode(cursor);
+
+        // Fetch one extra row so we know whether another page exists
+        List<ReviewSummaryDto> rows = findSummaries(
+                userId,
+                snippetLength,
+                after,
+                Limit.of(pageSize + 1)
+        );
+
+        if (rows.size() <= pageSize) {
+            return new CursorPageDto<>(rows, null);
+        }
+
+        List<ReviewSummaryDto> page = rows.subList(0, pageSize);
+        ReviewSummaryDto last = page.get(pageSize - 1);
+        String nextCursor = new ReviewCursor(last.createdAt(), last.id()).encode();
+        return new CursorPageDto<>(List.copyOf(page), nextCursor);
     }
 
     @Transactional(readOnly = true)
     public ReviewDto getReviewById(Long userId, Long reviewId) {
-        Review review = reviewRepository.findById(reviewId)
-                .filter(r -> r.getUser().getId().equals(userId))
+        return reviewRepository.findDtoByIdAndUserId(reviewId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Review not found"
                 ));
-
-        return toDto(review);
     }
 
     @Transactional(readOnly = true)
     public ReviewDto getReviewForWorkOrNull(Long userId, Long workId) {
-        return reviewRepository.findByUserIdAndWorkId(userId, workId)
-                .map(this::toDto)
+        return reviewRepository.findDtoByUserIdAndWorkId(userId, workId)
                 .orElse(null);
     }
 
@@ -71,18 +107,13 @@ public class ReviewService {
             );
         }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "User not found"
-                ));
-
-        Work work = workRepository.findById(dto.workId())
-                .filter(w -> w.getUser().getId().equals(userId))
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Work not found for user"
-                ));
+        // Existence check only; a new review just needs the work's id for the foreign key
+        if (!workRepository.existsByIdAndUserId(dto.workId(), userId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Work not found for user"
+            );
+        }
 
         Review review = reviewRepository.findByUserIdAndWorkId(userId, dto.workId())
                 .map(existing -> {
@@ -93,8 +124,8 @@ public class ReviewService {
                 .orElseGet(() ->
                         // Create a brand-new review using the factory
                         Review.create(
-                                user,
-                                work,
+                                userRepository.getReferenceById(userId),
+                                workRepository.getReferenceById(dto.workId()),
                                 dto.rating(),
                                 dto.title(),
                                 dto.body(),
@@ -103,24 +134,37 @@ public class ReviewService {
                 );
 
         Review saved = reviewRepository.save(review);
+        versionService.onReviewsChanged(userId);
         return toDto(saved);
     }
 
 
     public void deleteReview(Long userId, Long reviewId) {
-        Review review = reviewRepository.findById(reviewId)
-                .filter(r -> r.getUser().getId().equals(userId))
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Review not found"
-                ));
-
-        reviewRepository.delete(review);
+        if (reviewRepository.deleteByIdAndUserId(reviewId, userId) == 0) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Review not found"
+            );
+        }
+        versionService.onReviewsChanged(userId);
     }
 
     // ---------- helpers ----------
 
-    private ReviewDto toDto(Review r) {
+    private List<ReviewSummaryDto> findSummaries(Long userId, int snippetLength, ReviewCursor after, Limit limit) {
+        if (snippetLength < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Snippet length must not be negative");
+        }
+        Instant afterCreatedAt = after != null ? after.createdAt() : null;
+        Long afterId = after != null ? after.id() : null;
+        if (snippetLength == 0) {
+            return reviewRepository.findSummaryPage(userId, afterCreatedAt, afterId, limit);
+        }
+        int length = Math.min(snippetLength, MAX_SNIPPET_LENGTH);
+        return reviewRepository.findSummaryPageWithSnippets(userId, length, afterCreatedAt, afterId, limit);
+    }
+
+    ReviewDto toDto(Review r) {
         return new ReviewDto(
                 r.getId(),
                 r.getWork().getId(),
@@ -0,0 +1,47 @@
+package org.saper.shelflife.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last hit on a search page: (score, workId), best first.
+ * Encoded as an opaque base64url string so clients don't depend on its shape.
+ */
+record SearchCursor(BigDecimal score, Long workId) {
+
+    static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            // workId:score (score is the exact decimal the query returned)
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) {
+                throw invalidCursor();
+            }
+
+            return new SearchCursor(new BigDecimal(parts[1]), Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException ex) {
+            // Covers bad base64 and NumberFormatException
+            throw invalidCursor();
+        }
+    }
+
+    String encode() {
+        String raw = workId + ":" + score.toPlainString();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,57 @@
+package org.saper.shelflife.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * User search text turned into a MySQL boolean-mode FULLTEXT expression.
+ * <p>
+ * Every word is required and matched as a prefix ("dune mess" -> "+dune* +mess*"), so results
+ * narrow as the user types. Operators in the input are dropped rather than interpreted, so
+ * no input can produce a syntax error.
+ */
+record SearchQuery(String booleanExpression) {
+
+    static final int MAX_LENGTH = 200;
+    static final int MAX_TERMS = 8;
+
+    static SearchQuery parse(String text) {
+        if (text == null || text.isBlank()) {
+            throw badRequest("Query must not be empty");
+        }
+        if (text.length() > MAX_LENGTH) {
+            throw badRequest("Query must be at most " + MAX_LENGTH + " characters");
+        }
+
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && terms.size() < MAX_TERMS) {
+                terms.add(word);
+            }
+        }
+        // Single letters (the "o" of O'Brien) match almost everything; keep them only if alone
+        if (terms.size() > 1) {
+            terms.removeIf(t -> t.length() == 1);
+        }
+        if (terms.isEmpty()) {
+            throw badRequest("Query must contain letters or digits");
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String term : terms) {
+            if (!sb.isEmpty()) {
+                sb.append(' ');
+            }
+            sb.append('+').append(term).append('*');
+        }
+        return new SearchQuery(sb.toString());
+    }
+
+    private static ResponseStatusException badRequest(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+}
@@ -0,0 +1,79 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.SearchHitDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.repository.WorkRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Library search backed by MySQL FULLTEXT indexes on works and reviews.
+ * InnoDB maintains those indexes with each commit, so writes need no extra bookkeeping here.
+ */
+@Service
+@Transactional(readOnly = true)
+public class SearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+
+    // Above any relevance MySQL produces, so the first page's keyset condition matches every row
+    private static final BigDecimal FIRST_PAGE_SCORE = new BigDecimal("1000000000");
+
+    private final WorkRepository workRepository;
+
+    public SearchService(WorkRepository workRepository) {
+        this.workRepository = workRepository;
+    }
+
+    // ---------- Queries ----------
+
+    public CursorPageDto<SearchHitDto> search(Long userId, String text, int limit, String cursor) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        SearchQuery query = SearchQuery.parse(text);
+        SearchCursor after = SearchCursor.decode(cursor);
+
+        // Fetch one extra row so we know whether another page exists
+        List<SearchHitDto> hits = workRepository.search(
+                        userId,
+                        query.booleanExpression(),
+                        after != null ? after.score() : FIRST_PAGE_SCORE,
+                        after != null ? after.workId() : Long.MAX_VALUE,
+                        pageSize + 1
+                ).stream()
+                .map(SearchService::toDto)
+                .toList();
+
+        if (hits.size() <= pageSize) {
+            return new CursorPageDto<>(hits, null);
+        }
+
+        List<SearchHitDto> page = hits.subList(0, pageSize);
+        SearchHitDto last = page.get(pageSize - 1);
+        return new CursorPageDto<>(List.copyOf(page), new SearchCursor(last.score(), last.workId()).encode());
+    }
+
+    // ---------- Internal helpers ----------
+
+    private static SearchHitDto toDto(WorkRepository.SearchRow row) {
+        return new SearchHitDto(
+                row.getWorkId().longValue(),
+                row.getTitle(),
+                row.getCreator(),
+                WorkType.valueOf(row.getType()),
+                row.getGenre(),
+                WorkStatus.valueOf(row.getStatus()),
+                row.getScore(),
+                row.getMatchedReview().intValue() == 1
+        );
+    }
+}
@@ -0,0 +1,24 @@
+package org.saper.shelflife.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 503 with a Retry-After header, for when a bounded resource is saturated.
+ * ResponseStatusException itself can't carry headers, hence the subclass.
+ */
+public class ServiceBusyException extends ResponseStatusException {
+
+    private final HttpHeaders headers = new HttpHeaders();
+
+    public ServiceBusyException(String reason, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,48 @@
+package org.saper.shelflife.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last session on a page: (startedAt, id), newest first.
+ * Encoded as an opaque base64url string so clients don't depend on its shape.
+ */
+record SessionCursor(Instant startedAt, Long id) {
+
+    static SessionCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            // id:startedAt (ISO-8601 instant)
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) {
+                throw invalidCursor();
+            }
+
+            return new SessionCursor(Instant.parse(parts[1]), Long.parseLong(parts[0]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            // Covers bad base64, NumberFormatException and unparseable instants
+            throw invalidCursor();
+        }
+    }
+
+    String encode() {
+        String raw = id + ":" + startedAt;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
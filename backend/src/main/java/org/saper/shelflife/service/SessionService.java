@@ -1,76 +1,148 @@
 package org.saper.shelflife.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.SessionBatchItemDto;
+import org.saper.shelflife.dto.SessionBatchItemResultDto;
+import org.saper.shelflife.dto.SessionBatchResultDto;
 import org.saper.shelflife.dto.SessionCreateUpdateDto;
 import org.saper.shelflife.dto.SessionDto;
 import org.saper.shelflife.model.Session;
+import org.saper.shelflife.model.SessionContribution;
 import org.saper.shelflife.model.User;
 import org.saper.shelflife.model.Work;
 import org.saper.shelflife.repository.SessionRepository;
 import org.saper.shelflife.repository.UserRepository;
 import org.saper.shelflife.repository.WorkRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.util.Comparator;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class SessionService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
     private final SessionRepository sessionRepository;
     private final UserRepository userRepository;
     private final WorkRepository workRepository;
+    private final StatsService statsService;
+    private final VersionService versionService;
+    private final Validator validator;
 
     public SessionService(SessionRepository sessionRepository,
                           UserRepository userRepository,
-                          WorkRepository workRepository) {
+                          WorkRepository workRepository,
+                          StatsService statsService,
+                          VersionService versionService,
+                          Validator validator) {
         this.sessionRepository = sessionRepository;
         this.userRepository = userRepository;
         this.workRepository = workRepository;
+        this.statsService = statsService;
+        this.versionService = versionService;
+        this.validator = validator;
     }
 
     // ---------- Queries ----------
 
     @Transactional(readOnly = true)
     public List<SessionDto> getSessionsForUser(Long userId) {
-        return sessionRepository.findByUserId(userId).stream()
-                .sorted(byStartedAtDesc())
-                .map(this::toDto)
-                .toList();
+        return getSessionsForUser(userId, null, null);
+    }
+
+    /**
+     * All of the user's sessions with startedAt in [from, to) (either bound optional), newest first.
+     */
+    @Transactional(readOnly = true)
+    public List<SessionDto> getSessionsForUser(Long userId, Instant from, Instant to) {
+        checkWindow(from, to);
+        return sessionRepository.findSessionPage(userId, null, from, to, null, null, Limit.unlimited());
     }
 
     @Transactional(readOnly = true)
     public List<SessionDto> getSessionsForWork(Long userId, Long workId) {
+        return getSessionsForWork(userId, workId, null, null);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SessionDto> getSessionsForWork(Long userId, Long workId, Instant from, Instant to) {
+        checkWindow(from, to);
         // Ensure the work belongs to the user
-        Work work = findUserWork(userId, workId);
-        return sessionRepository.findByUserIdAndWorkId(userId, work.getId()).stream()
-                .sorted(byStartedAtDesc())
-                .map(this::toDto)
-                .toList();
+        checkUserWork(userId, workId);
+        return sessionRepository.findSessionPage(userId, workId, from, to, null, null, Limit.unlimited());
+    }
+
+    /**
+     * Keyset-paginated sessions, newest first, optionally for one work and/or a [from, to) window.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<SessionDto> getSessionPage(
+            Long userId,
+            Long workId,
+            Instant from,
+            Instant to,
+            int limit,
+            String cursor
+    ) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        checkWindow(from, to);
+        if (workId != null) {
+            checkUserWork(userId, workId);
+        }
+
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        SessionCursor after = SessionCursor.decode(cursor);
+
+        // Fetch one extra row so we know whether another page exists
+        List<SessionDto> rows = sessionRepository.findSessionPage(
+                userId,
+                workId,
+                from,
+                to,
+                after != null ? after.startedAt() : null,
+                after != null ? after.id() : null,
+                Limit.of(pageSize + 1)
+        );
+
+        if (rows.size() <= pageSize) {
+            return new CursorPageDto<>(rows, null);
+        }
+
+        List<SessionDto> page = rows.subList(0, pageSize);
+        SessionDto last = page.get(pageSize - 1);
+        String nextCursor = new SessionCursor(last.startedAt(), last.id()).encode();
+        return new CursorPageDto<>(List.copyOf(page), nextCursor);
     }
 
     @Transactional(readOnly = true)
     public SessionDto getSession(Long userId, Long sessionId) {
-        Session session = sessionRepository.findById(sessionId)
-                .filter(s -> s.getUser().getId().equals(userId))
+        return sessionRepository.findDtoByIdAndUserId(sessionId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Session not found"
                 ));
-        return toDto(session);
     }
 
     // ---------- Commands ----------
 
     public SessionDto createSession(Long userId, SessionCreateUpdateDto dto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "User not found"
-                ));
+        User user = userRepository.getReferenceById(userId); // authenticated user; only its id is written
 
         Work work = findUserWork(userId, dto.workId());
 
@@ -79,15 +151,13 @@ public class SessionService {
         applyDto(dto, session);
 
         Session saved = sessionRepository.save(session);
+        statsService.onSessionCreated(saved);
+        versionService.onSessionsChanged(userId);
         return toDto(saved);
     }
 
     public SessionDto createSessionForWork(Long userId, Long workId, SessionCreateUpdateDto dto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "User not found"
-                ));
+        User user = userRepository.getReferenceById(userId); // authenticated user; only its id is written
 
         Work work = findUserWork(userId, workId);
 
@@ -105,16 +175,119 @@ public class SessionService {
         applyDto(merged, session);
 
         Session saved = sessionRepository.save(session);
+        statsService.onSessionCreated(saved);
+        versionService.onSessionsChanged(userId);
         return toDto(saved);
     }
 
+    /**
+     * Bulk create for offline sync. Each item is validated on its own and reported as
+     * CREATED, DUPLICATE (its idempotency key was already used, here or in an earlier
+     * request) or REJECTED; valid items are saved even when others fail.
+     * <p>
+     * Costs a fixed number of queries regardless of size: one for existing keys, one for
+     * work ownership, batched inserts, and one stats upsert per distinct day and work.
+     */
+    public SessionBatchResultDto createSessionBatch(Long userId, List<SessionBatchItemDto> items) {
+        SessionBatchItemResultDto[] results = new SessionBatchItemResultDto[items.size()];
+
+        Set<String> keys = new HashSet<>();
+        Set<Long> workIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            SessionBatchItemDto item = items.get(i);
+            String error = validate(item);
+            if (error != null) {
+                results[i] = SessionBatchItemResultDto.rejected(i, item != null ? item.idempotencyKey() : null, error);
+                continue;
+            }
+            if (item.idempotencyKey() != null) {
+                keys.add(item.idempotencyKey());
+            }
+            workIds.add(item.workId());
+        }
+
+        Map<String, SessionDto> existing = keys.isEmpty()
+                ? Map.of()
+                : sessionRepository.findByUserIdAndIdempotencyKeyIn(userId, keys).stream()
+                        .collect(Collectors.toMap(Session::getIdempotencyKey, this::toDto));
+        Set<Long> ownedWorkIds = workIds.isEmpty()
+                ? Set.of()
+                : new HashSet<>(workRepository.findIdsOwnedByUser(userId, workIds));
+
+        // References, not loads: ownership is already checked, so no per-item SELECTs
+        User user = userRepository.getReferenceById(userId);
+        List<Session> toSave = new ArrayList<>();
+        Map<Integer, Session> createdAt = new HashMap<>();
+        Map<String, Integer> firstIndexByKey = new HashMap<>();
+
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            SessionBatchItemDto item = items.get(i);
+            String key = item.idempotencyKey();
+
+            if (key != null && existing.containsKey(key)) {
+                results[i] = SessionBatchItemResultDto.duplicate(i, key, existing.get(key));
+                continue;
+            }
+            if (key != null && firstIndexByKey.containsKey(key)) {
+                continue; // repeated within this batch; filled in once the first copy has an id
+            }
+            if (!ownedWorkIds.contains(item.workId())) {
+                results[i] = SessionBatchItemResultDto.rejected(i, key, "Work not found for user");
+                continue;
+            }
+
+            Session session = Session.create(user, workRepository.getReferenceById(item.workId()), item.startedAt());
+            applyDto(item.toCreateDto(), session);
+            session.setIdempotencyKey(key);
+            toSave.add(session);
+            createdAt.put(i, session);
+            if (key != null) {
+                firstIndexByKey.put(key, i);
+            }
+        }
+
+        // Pooled ids are assigned here; the INSERTs go out in JDBC batches at the next flush
+        List<Session> saved = sessionRepository.saveAll(toSave);
+        statsService.onSessionsCreated(userId, saved);
+        if (!saved.isEmpty()) {
+            versionService.onSessionsChanged(userId);
+        }
+
+        int created = 0;
+        int duplicates = 0;
+        int rejected = 0;
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] == null) {
+                Session session = createdAt.get(i);
+                if (session != null) {
+                    results[i] = SessionBatchItemResultDto.created(i, session.getIdempotencyKey(), toDto(session));
+                } else {
+                    String key = items.get(i).idempotencyKey();
+                    SessionBatchItemResultDto first = results[firstIndexByKey.get(key)];
+                    results[i] = SessionBatchItemResultDto.duplicate(i, key, first.session());
+                }
+            }
+
+            switch (results[i].status()) {
+                case CREATED -> created++;
+                case DUPLICATE -> duplicates++;
+                case REJECTED -> rejected++;
+            }
+        }
+
+        return new SessionBatchResultDto(created, duplicates, rejected, List.of(results));
+    }
+
     public SessionDto updateSession(Long userId, Long sessionId, SessionCreateUpdateDto dto) {
-        Session session = sessionRepository.findById(sessionId)
-                .filter(s -> s.getUser().getId().equals(userId))
+        Session session = sessionRepository.findByIdAndUserId(sessionId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Session not found"
                 ));
+        SessionContribution before = SessionContribution.of(session);
 
         // Optional: allow changing workId, but still enforce ownership
         if (dto.workId() != null && !dto.workId().equals(session.getWork().getId())) {
@@ -124,31 +297,43 @@ public class SessionService {
 
         applyDto(dto, session);
         Session saved = sessionRepository.save(session);
+        statsService.onSessionUpdated(before, saved);
+        versionService.onSessionsChanged(userId);
         return toDto(saved);
     }
 
     public void deleteSession(Long userId, Long sessionId) {
-        Session session = sessionRepository.findById(sessionId)
-                .filter(s -> s.getUser().getId().equals(userId))
+        Session session = sessionRepository.findByIdAndUserId(sessionId, userId)
                 .orElseThrow(() -> new ResponseStatusException(
                         HttpStatus.NOT_FOUND,
                         "Session not found"
                 ));
         sessionRepository.delete(session);
+        statsService.onSessionDeleted(session);
+        versionService.onSessionsChanged(userId);
     }
 
     // ---------- Helpers ----------
 
+    /**
+     * Checks ownership with an existence query and returns an uninitialized reference:
+     * sessions only need the work's id for the foreign key.
+     */
     private Work findUserWork(Long userId, Long workId) {
-        return workRepository.findById(workId)
-                .filter(w -> w.getUser().getId().equals(userId))
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "Work not found for user"
-                ));
+        checkUserWork(userId, workId);
+        return workRepository.getReferenceById(workId);
     }
 
-    private SessionDto toDto(Session s) {
+    private void checkUserWork(Long userId, Long workId) {
+        if (workId == null || !workRepository.existsByIdAndUserId(workId, userId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Work not found for user"
+            );
+        }
+    }
+
+    SessionDto toDto(Session s) {
         return new SessionDto(
                 s.getId(),
                 s.getWork().getId(),
@@ -171,10 +356,26 @@ public class SessionService {
         s.setNote(dto.note());
     }
 
-    private Comparator<Session> byStartedAtDesc() {
-        return Comparator.comparing(
-                Session::getStartedAt,
-                Comparator.nullsLast(Comparator.naturalOrder())
-        ).reversed();
+    /**
+     * Bean Validation for one batch item; returns a message like "minutes: must be ..." or null.
+     */
+    private String validate(SessionBatchItemDto item) {
+        if (item == null) {
+            return "Item is required";
+        }
+        Set<ConstraintViolation<SessionBatchItemDto>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void checkWindow(Instant from, Instant to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must be before 'to'");
+        }
     }
 }
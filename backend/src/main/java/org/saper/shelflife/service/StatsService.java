@@ -0,0 +1,321 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.dto.ActivityBucketDto;
+import org.saper.shelflife.dto.DailyStatsDto;
+import org.saper.shelflife.dto.StatsSummaryDto;
+import org.saper.shelflife.dto.WorkStatsDto;
+import org.saper.shelflife.model.Session;
+import org.saper.shelflife.model.SessionContribution;
+import org.saper.shelflife.model.UserStats;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.repository.DailyStatsRepository;
+import org.saper.shelflife.repository.SessionRepository;
+import org.saper.shelflife.repository.UserStatsRepository;
+import org.saper.shelflife.repository.WorkStatsRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Reading statistics served from per-user, per-day and per-work rollup tables.
+ * <p>
+ * Rollups are updated incrementally from SessionService/WorkService writes, inside the
+ * same transaction. Users whose sessions predate the rollups get a one-off rebuild
+ * from the sessions table the first time their stats are read or written.
+ */
+@Service
+@Transactional
+public class StatsService {
+
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366 * 5;
+    public static final int MAX_TOP_WORKS = 100;
+
+    private final UserStatsRepository userStatsRepository;
+    private final DailyStatsRepository dailyStatsRepository;
+    private final WorkStatsRepository workStatsRepository;
+    private final SessionRepository sessionRepository;
+
+    public StatsService(UserStatsRepository userStatsRepository,
+                        DailyStatsRepository dailyStatsRepository,
+                        WorkStatsRepository workStatsRepository,
+                        SessionRepository sessionRepository) {
+        this.userStatsRepository = userStatsRepository;
+        this.dailyStatsRepository = dailyStatsRepository;
+        this.workStatsRepository = workStatsRepository;
+        this.sessionRepository = sessionRepository;
+    }
+
+    // ---------- Queries ----------
+    // Not read-only: the first read for a user may backfill their rollups.
+
+    public StatsSummaryDto getSummary(Long userId) {
+        ensureInitialized(userId);
+        UserStats stats = userStatsRepository.findById(userId)
+                .orElseGet(UserStats::new);
+        return new StatsSummaryDto(
+                stats.getMinutes(),
+                stats.getUnitsCompleted(),
+                stats.getSessionCount()
+        );
+    }
+
+    public List<DailyStatsDto> getDailyStats(Long userId, LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_DAYS - 1);
+
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_DAYS) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Date range may span at most " + MAX_DAYS + " days"
+            );
+        }
+
+        ensureInitialized(userId);
+        return dailyStatsRepository.findRange(userId, start, end);
+    }
+
+    public List<WorkStatsDto> getTopWorks(Long userId, int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        ensureInitialized(userId);
+        return workStatsRepository.findTopByMinutes(userId, Limit.of(Math.min(limit, MAX_TOP_WORKS)));
+    }
+
+    /**
+     * Streams reading activity buckets (aggregated in the database from raw sessions)
+     * to the sink in bucket order, without materializing the result.
+     */
+    @Transactional(readOnly = true)
+    public void streamActivity(Long userId, ActivityQuery query, Consumer<ActivityBucketDto> sink) {
+        try (Stream<SessionRepository.ActivityRow> rows = sessionRepository.streamActivity(
+                userId,
+                query.granularity().name(),
+                query.startInclusive(),
+                query.endExclusive()
+        )) {
+            rows.map(r -> new ActivityBucketDto(
+                    r.getBucket(),
+                    WorkType.valueOf(r.getType()),
+                    r.getMinutes().longValue(),
+                    r.getUnitsCompleted().longValue(),
+                    r.getSessionCount().longValue()
+            )).forEach(sink);
+        }
+    }
+
+    // ---------- Write hooks ----------
+
+    /**
+     * Call after a new session has been saved.
+     */
+    public void onSessionCreated(Session session) {
+        SessionContribution added = SessionContribution.of(session);
+        if (ensureInitialized(added.userId())) {
+            return; // the rebuild already counted it
+        }
+        apply(added, 1);
+    }
+
+    /**
+     * Call after an existing session has been changed; before is its state prior to the change.
+     */
+    public void onSessionUpdated(SessionContribution before, Session session) {
+        SessionContribution after = SessionContribution.of(session);
+        if (before.equals(after) || ensureInitialized(after.userId())) {
+            return;
+        }
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Call after a session has been removed (delete issued, not necessarily flushed).
+     */
+    public void onSessionDeleted(Session session) {
+        SessionContribution removed = SessionContribution.of(session);
+        if (ensureInitialized(removed.userId())) {
+            return;
+        }
+        apply(removed, -1);
+    }
+
+    /**
+     * Call after a batch of new sessions for one user has been saved.
+     * Costs one upsert per distinct day and work instead of three per session.
+     */
+    public void onSessionsCreated(Long userId, List<Session> sessions) {
+        if (sessions.isEmpty() || ensureInitialized(userId)) {
+            return;
+        }
+
+        // TreeMaps so concurrent batches touch rollup rows in the same order (no lock cycles)
+        Totals all = new Totals();
+        Map<LocalDate, Totals> byDay = new TreeMap<>();
+        Map<Long, Totals> byWork = new TreeMap<>();
+        for (Session session : sessions) {
+            SessionContribution c = SessionContribution.of(session);
+            all.add(c);
+            byDay.computeIfAbsent(c.day(), d -> new Totals()).add(c);
+            byWork.computeIfAbsent(c.workId(), w -> new Totals()).add(c);
+        }
+
+        userStatsRepository.addDelta(userId, all.minutes, all.units, all.sessions);
+        byDay.forEach((date, t) -> dailyStatsRepository.addDelta(userId, date, t.minutes, t.units, t.sessions));
+        byWork.forEach((workId, t) -> workStatsRepository.addDelta(workId, userId, t.minutes, t.units, t.sessions));
+    }
+
+    /**
+     * Call before a work (and its sessions) is deleted.
+     */
+    public void onWorkDeleting(Long userId, Long workId) {
+        ensureInitialized(userId);
+        subtractByDay(userId, sessionRepository.findContributionsForWork(userId, workId));
+        workStatsRepository.deleteByWorkIdInBulk(workId);
+    }
+
+    /**
+     * Call before deleting some of a user's sessions in bulk (a chunk of a large work delete).
+     */
+    public void onSessionsDeleting(Long userId, List<SessionContribution> removed) {
+        ensureInitialized(userId);
+        subtractByDay(userId, removed);
+
+        Map<Long, Totals> byWork = new TreeMap<>();
+        for (SessionContribution c : removed) {
+            byWork.computeIfAbsent(c.workId(), w -> new Totals()).add(c);
+        }
+        byWork.forEach((workId, t) -> {
+            workStatsRepository.addDelta(workId, userId, -t.minutes, -t.units, -t.sessions);
+            workStatsRepository.deleteIfEmpty(workId);
+        });
+    }
+
+    /**
+     * Recomputes all rollups for a user from the sessions table.
+     * <p>
+     * The sessions are summed with a plain read and written back as upserts. Reading them with
+     * INSERT ... SELECT would take shared locks on MySQL, and other first writes for the user
+     * hold their uncommitted sessions while they wait on this transaction's claim: a deadlock.
+     */
+    public void rebuild(Long userId) {
+        // The native read below doesn't see pending session changes, so push them first
+        sessionRepository.flush();
+
+        userStatsRepository.deleteByUserIdInBulk(userId);
+        dailyStatsRepository.deleteByUserIdInBulk(userId);
+        workStatsRepository.deleteByUserIdInBulk(userId);
+
+        Totals all = new Totals();
+        Map<LocalDate, Totals> byDay = new TreeMap<>();
+        Map<Long, Totals> byWork = new TreeMap<>();
+        for (SessionRepository.RollupRow row : sessionRepository.sumByDayAndWork(userId)) {
+            long minutes = row.getMinutes().longValue();
+            long units = row.getUnitsCompleted().longValue();
+            long sessions = row.getSessionCount().longValue();
+            all.add(minutes, units, sessions);
+            byDay.computeIfAbsent(row.getDay(), d -> new Totals()).add(minutes, units, sessions);
+            byWork.computeIfAbsent(row.getWorkId().longValue(), w -> new Totals()).add(minutes, units, sessions);
+        }
+
+        // Written even for a user without sessions: the row marks the rollups as built
+        userStatsRepository.addDelta(userId, all.minutes, all.units, all.sessions);
+        byDay.forEach((date, t) -> dailyStatsRepository.addDelta(userId, date, t.minutes, t.units, t.sessions));
+        byWork.forEach((workId, t) -> workStatsRepository.addDelta(workId, userId, t.minutes, t.units, t.sessions));
+    }
+
+    // ---------- Helpers ----------
+
+    /**
+     * Backfills the user's rollups if they've never been built. A user_stats row only becomes
+     * visible once its rebuild has committed, so its existence means "built". Concurrent first
+     * writes serialize on the claim; the losers wait for the winner's rebuild and then apply
+     * their own change as a delta.
+     *
+     * @return true if a rebuild just ran (so it already reflects the current sessions)
+     */
+    private boolean ensureInitialized(Long userId) {
+        if (userStatsRepository.existsById(userId) || userStatsRepository.claim(userId) == 0) {
+            return false;
+        }
+        rebuild(userId);
+        return true;
+    }
+
+    /**
+     * Takes sessions out of the user and daily totals, summed per day first so a long-running
+     * work costs one upsert per day, not per session.
+     */
+    private void subtractByDay(Long userId, List<SessionContribution> removed) {
+        Totals all = new Totals();
+        Map<LocalDate, Totals> byDay = new TreeMap<>();
+        for (SessionContribution c : removed) {
+            all.add(c);
+            byDay.computeIfAbsent(c.day(), d -> new Totals()).add(c);
+        }
+
+        if (all.sessions > 0) {
+            userStatsRepository.addDelta(userId, -all.minutes, -all.units, -all.sessions);
+            byDay.forEach((date, t) -> {
+                dailyStatsRepository.addDelta(userId, date, -t.minutes, -t.units, -t.sessions);
+                dailyStatsRepository.deleteIfEmpty(userId, date);
+            });
+        }
+    }
+
+    private void apply(SessionContribution c, int sign) {
+        long minutes = sign * c.minutesOrZero();
+        long units = sign * c.unitsOrZero();
+
+        userStatsRepository.addDelta(c.userId(), minutes, units, sign);
+        dailyStatsRepository.addDelta(c.userId(), c.day(), minutes, units, sign);
+        if (sign < 0) {
+            dailyStatsRepository.deleteIfEmpty(c.userId(), c.day());
+        }
+
+        workStatsRepository.addDelta(
+                c.workId(),
+                c.userId(),
+                minutes,
+                units,
+                sign
+        );
+        if (sign < 0) {
+            workStatsRepository.deleteIfEmpty(c.workId());
+        }
+    }
+
+    /**
+     * Running sums for one rollup row.
+     */
+    private static final class Totals {
+        long minutes;
+        long units;
+        long sessions;
+
+        void add(SessionContribution c) {
+            add(c.minutesOrZero(), c.unitsOrZero(), 1);
+        }
+
+        void add(long minutes, long units, long sessions) {
+            this.minutes += minutes;
+            this.units += units;
+            this.sessions += sessions;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package org.saper.shelflife.service;
+
+/**
+ * Which library column GET /api/works/suggest completes.
+ */
+public enum SuggestionField {
+    TITLE,
+    CREATOR
+}
@@ -0,0 +1,197 @@
+package org.saper.shelflife.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Issues and verifies stateless access tokens.
+ * <p>
+ * Format: {@code <userId>.<expiresEpochSeconds>.<base64url HMAC-SHA256 of the first two parts>}.
+ * Verification needs no database access. Tokens that have already been verified are kept
+ * in a small in-memory cache, so repeat requests skip the HMAC and only check expiry.
+ * <p>
+ * The old unsigned {@code demo-token-user-N} tokens are rejected unless
+ * {@code shelflife.auth.allow-demo-tokens} is set (local frontend development only).
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder SIGNATURE_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final String DEMO_PREFIX = "demo-token-user-";
+
+    private final Mac prototype;
+    private final Duration ttl;
+    private final Clock clock;
+    private final boolean allowDemoTokens;
+    private final Cache<String, VerifiedToken> verified;
+
+    @Autowired
+    public TokenService(@Value("${shelflife.auth.token-secret:}") String secret,
+                        @Value("${shelflife.auth.token-ttl:12h}") Duration ttl,
+                        @Value("${shelflife.auth.verified-cache-size:10000}") long cacheSize,
+                        @Value("${shelflife.auth.allow-demo-tokens:false}") boolean allowDemoTokens) {
+        this(secret, ttl, cacheSize, allowDemoTokens, Clock.systemUTC());
+    }
+
+    TokenService(String secret, Duration ttl, long cacheSize, boolean allowDemoTokens, Clock clock) {
+        this.prototype = initMac(secretBytes(secret));
+        this.ttl = ttl;
+        this.clock = clock;
+        this.allowDemoTokens = allowDemoTokens;
+        if (allowDemoTokens) {
+            log.warn("shelflife.auth.allow-demo-tokens is on; anyone can impersonate any user");
+        }
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    public IssuedToken issue(Long userId) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String payload = userId + "." + expiresAt.getEpochSecond();
+        return new IssuedToken(payload + "." + sign(payload, payload.length()), expiresAt);
+    }
+
+    /**
+     * Returns the token's user id, or throws 401 if it is malformed, forged or expired.
+     */
+    public Long verify(String token) {
+        if (allowDemoTokens && token.startsWith(DEMO_PREFIX)) {
+            return parseDemoToken(token);
+        }
+
+        VerifiedToken hit = verified.getIfPresent(token);
+        VerifiedToken result = hit != null ? hit : parseAndCheckSignature(token);
+
+        if (clock.instant().getEpochSecond() >= result.expiresAtEpochSecond()) {
+            verified.invalidate(token);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Token expired");
+        }
+        if (hit == null) {
+            verified.put(token, result);
+        }
+        return result.userId();
+    }
+
+    // ---------- Internal helpers ----------
+
+    private VerifiedToken parseAndCheckSignature(String token) {
+        int firstDot = token.indexOf('.');
+        int secondDot = firstDot < 0 ? -1 : token.indexOf('.', firstDot + 1);
+        if (firstDot <= 0 || secondDot <= firstDot + 1 || secondDot == token.length() - 1) {
+            throw invalidToken();
+        }
+
+        long userId;
+        long expiresAt;
+        try {
+            // CharSequence overloads parse in place without substring copies
+            userId = Long.parseLong(token, 0, firstDot, 10);
+            expiresAt = Long.parseLong(token, firstDot + 1, secondDot, 10);
+        } catch (NumberFormatException ex) {
+            throw invalidToken();
+        }
+
+        String expected = sign(token, secondDot);
+        if (!constantTimeEquals(expected, token, secondDot + 1)) {
+            throw invalidToken();
+        }
+        return new VerifiedToken(userId, expiresAt);
+    }
+
+    private static Long parseDemoToken(String token) {
+        try {
+            return Long.parseLong(token, DEMO_PREFIX.length(), token.length(), 10);
+        } catch (NumberFormatException ex) {
+            throw invalidToken();
+        }
+    }
+
+    /**
+     * Signs text[0, end). The payload is ASCII digits and '.', so chars map 1:1 to bytes.
+     */
+    private String sign(String text, int end) {
+        Mac mac = newMac();
+        for (int i = 0; i < end; i++) {
+            mac.update((byte) text.charAt(i));
+        }
+        return SIGNATURE_ENCODER.encodeToString(mac.doFinal());
+    }
+
+    /**
+     * Compares expected against token[offset..] without short-circuiting on the first mismatch.
+     */
+    private static boolean constantTimeEquals(String expected, String token, int offset) {
+        if (token.length() - offset != expected.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            diff |= expected.charAt(i) ^ token.charAt(offset + i);
+        }
+        return diff == 0;
+    }
+
+    private Mac newMac() {
+        // Mac isn't thread-safe; cloning the keyed prototype is cheaper than re-initialising
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static ResponseStatusException invalidToken() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid token");
+    }
+
+    private static Mac initMac(byte[] key) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(key, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM, ex);
+        }
+    }
+
+    private static byte[] secretBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            log.warn("shelflife.auth.token-secret is not set; using a random key, so tokens won't survive a restart");
+            byte[] key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            return key;
+        }
+
+        byte[] key = Base64.getDecoder().decode(secret.trim());
+        if (key.length < 32) {
+            throw new IllegalStateException("shelflife.auth.token-secret must decode to at least 32 bytes");
+        }
+        return key;
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+
+    private record VerifiedToken(Long userId, long expiresAtEpochSecond) {
+    }
+}
@@ -0,0 +1,201 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.dto.SuggestionDto;
+import org.saper.shelflife.dto.WorkSummaryDto;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable prefix index over one user's titles and creators, built from their library list.
+ * <p>
+ * Every word start of every value is a key in a sorted array, so "mess" finds "Dune Messiah"
+ * as well as "Messiah". A lookup is a binary search plus a short range scan; nothing is
+ * allocated per key and nothing goes to the database. Matching ignores case and accents.
+ */
+final class TypeaheadIndex {
+
+    // Bounds the work done for one- or two-letter prefixes on huge libraries
+    private static final int MAX_SCAN = 2_000;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Field titles;
+    private final Field creators;
+
+    private TypeaheadIndex(Field titles, Field creators) {
+        this.titles = titles;
+        this.creators = creators;
+    }
+
+    static TypeaheadIndex build(List<WorkSummaryDto> library) {
+        return new TypeaheadIndex(
+                Field.build(library, WorkSummaryDto::title),
+                Field.build(library, WorkSummaryDto::creator)
+        );
+    }
+
+    List<SuggestionDto> suggest(SuggestionField field, String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return (field == SuggestionField.CREATOR ? creators : titles).suggest(key, limit);
+    }
+
+    /**
+     * Rough retained size, used as the cache weight.
+     */
+    long estimatedBytes() {
+        return 64 + titles.estimatedBytes + creators.estimatedBytes;
+    }
+
+    /**
+     * Lower case, accents stripped, runs of punctuation/space collapsed to one space.
+     */
+    static String normalize(String value) {
+        if (value == null) return "";
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String stripped = MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        return SEPARATORS.matcher(stripped).replaceAll(" ").trim();
+    }
+
+    /**
+     * Index over one column. values/counts hold the distinct values; keys is sorted and
+     * keyValue[i] / keyAtStart[i] say which value key i belongs to and whether it is its first word.
+     */
+    private static final class Field {
+        final String[] values;
+        final int[] counts;
+        final String[] keys;
+        final int[] keyValue;
+        final boolean[] keyAtStart;
+        final long estimatedBytes;
+
+        private Field(String[] values, int[] counts, String[] keys, int[] keyValue, boolean[] keyAtStart, long estimatedBytes) {
+            this.values = values;
+            this.counts = counts;
+            this.keys = keys;
+            this.keyValue = keyValue;
+            this.keyAtStart = keyAtStart;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        static Field build(List<WorkSummaryDto> library, Function<WorkSummaryDto, String> column) {
+            // Distinct by normalized form; the first spelling seen is the one suggested
+            Map<String, Integer> byNormalized = new HashMap<>();
+            List<String> values = new ArrayList<>();
+            List<String> normalized = new ArrayList<>();
+            List<Integer> counts = new ArrayList<>();
+            for (WorkSummaryDto work : library) {
+                String value = column.apply(work);
+                String norm = normalize(value);
+                if (norm.isEmpty()) {
+                    continue;
+                }
+                Integer index = byNormalized.putIfAbsent(norm, values.size());
+                if (index == null) {
+                    values.add(value.trim());
+                    normalized.add(norm);
+                    counts.add(1);
+                } else {
+                    counts.set(index, counts.get(index) + 1);
+                }
+            }
+
+            List<KeyEntry> entries = new ArrayList<>();
+            long bytes = 0;
+            for (int v = 0; v < normalized.size(); v++) {
+                String norm = normalized.get(v);
+                bytes += 40 + values.get(v).length() + 4;
+                for (int start = 0; start >= 0; start = nextWord(norm, start)) {
+                    // substring copies, so each key is its own string (roughly 40 bytes + 1 per char)
+                    String key = norm.substring(start);
+                    entries.add(new KeyEntry(key, v, start == 0));
+                    bytes += 40 + key.length() + 9;
+                }
+            }
+            entries.sort(null);
+
+            String[] keys = new String[entries.size()];
+            int[] keyValue = new int[entries.size()];
+            boolean[] keyAtStart = new boolean[entries.size()];
+            for (int i = 0; i < keys.length; i++) {
+                KeyEntry entry = entries.get(i);
+                keys[i] = entry.key();
+                keyValue[i] = entry.value();
+                keyAtStart[i] = entry.atStart();
+            }
+
+            return new Field(
+                    values.toArray(String[]::new),
+                    counts.stream().mapToInt(Integer::intValue).toArray(),
+                    keys,
+                    keyValue,
+                    keyAtStart,
+                    bytes
+            );
+        }
+
+        /**
+         * Values whose first word starts with the prefix come first, then values where a later
+         * word does; each group in alphabetical order.
+         */
+        List<SuggestionDto> suggest(String prefix, int limit) {
+            int from = Arrays.binarySearch(keys, prefix);
+            if (from < 0) {
+                from = -from - 1;
+            }
+
+            Set<Integer> leading = new LinkedHashSet<>();
+            Set<Integer> inner = new LinkedHashSet<>();
+            int end = Math.min(keys.length, from + MAX_SCAN);
+            for (int i = from; i < end && keys[i].startsWith(prefix); i++) {
+                if (keyAtStart[i]) {
+                    leading.add(keyValue[i]);
+                    if (leading.size() >= limit) {
+                        break;
+                    }
+                } else if (inner.size() < limit) {
+                    inner.add(keyValue[i]);
+                }
+            }
+
+            List<SuggestionDto> result = new ArrayList<>(limit);
+            for (int v : leading) {
+                result.add(new SuggestionDto(values[v], counts[v]));
+            }
+            for (int v : inner) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (!leading.contains(v)) {
+                    result.add(new SuggestionDto(values[v], counts[v]));
+                }
+            }
+            return result;
+        }
+
+        private static int nextWord(String norm, int start) {
+            int space = norm.indexOf(' ', start);
+            return space < 0 ? -1 : space + 1;
+        }
+    }
+
+    private record KeyEntry(String key, int value, boolean atStart) implements Comparable<KeyEntry> {
+        @Override
+        public int compareTo(KeyEntry other) {
+            return key.compareTo(other.key);
+        }
+    }
+}
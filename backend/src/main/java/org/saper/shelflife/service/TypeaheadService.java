@@ -0,0 +1,83 @@
+package org.saper.shelflife.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.saper.shelflife.dto.SuggestionDto;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+/**
+ * Title / creator autocomplete for the "add work" form.
+ * <p>
+ * Each user's index is built on first use from their cached library list and kept in a
+ * cache bounded by estimated memory; cold users are evicted first. An index remembers the
+ * version of the library list it was built from, and LibraryCache loads a new version after
+ * every work write, so a stale index is noticed and rebuilt on the next keystroke. Only the
+ * version is kept, not the list, so evicted lists aren't held on to by the index cache.
+ * Cache meters are published with {@code cache=typeahead}.
+ */
+@Service
+public class TypeaheadService {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private final WorkService workService;
+    private final LibraryCache libraryCache;
+    private final Cache<Long, VersionedIndex> indexes;
+
+    public TypeaheadService(WorkService workService,
+                            LibraryCache libraryCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${shelflife.typeahead.max-memory:32MB}") DataSize maxMemory) {
+        this.workService = workService;
+        this.libraryCache = libraryCache;
+        this.indexes = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((Long userId, VersionedIndex entry) -> (int) Math.min(Integer.MAX_VALUE, entry.index().estimatedBytes()))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "typeahead");
+    }
+
+    public List<SuggestionDto> suggest(Long userId, SuggestionField field, String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        int size = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return indexFor(userId).suggest(field, prefix, size);
+    }
+
+    // ---------- Internal helpers ----------
+
+    private TypeaheadIndex indexFor(Long userId) {
+        // Straight from the library cache when possible: no transaction, no connection.
+        // Only the first keystroke after a write (or eviction) goes through WorkService to MySQL.
+        LibraryCache.Library library = libraryCache.getLibraryIfPresent(userId);
+        if (library == null) {
+            List<WorkSummaryDto> works = workService.getWorksForUser(userId);
+            library = libraryCache.getLibraryIfPresent(userId);
+            if (library == null) {
+                // Invalidated again by a concurrent write: serve this list without caching an index for it
+                return TypeaheadIndex.build(works);
+            }
+        }
+
+        VersionedIndex entry = indexes.getIfPresent(userId);
+        if (entry == null || entry.version() != library.version()) {
+            // Two concurrent rebuilds just do the work twice; the last one wins
+            entry = new VersionedIndex(library.version(), TypeaheadIndex.build(library.works()));
+            indexes.put(userId, entry);
+        }
+        return entry.index();
+    }
+
+    private record VersionedIndex(long version, TypeaheadIndex index) {
+    }
+}
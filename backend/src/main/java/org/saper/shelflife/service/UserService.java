@@ -5,8 +5,8 @@ import org.saper.shelflife.dto.UserRegistrationDto;
 import org.saper.shelflife.model.User;
 import org.saper.shelflife.repository.UserRepository;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.server.ResponseStatusException;
@@ -17,18 +17,21 @@ import org.springframework.web.server.ResponseStatusException;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
 
     public UserService(
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder
+            PasswordHasher passwordHasher
     ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
     }
 
     // ---------- Commands ----------
 
+    // No surrounding transaction, so no connection is held while the password is hashed;
+    // the checks and the save each run in their own short repository transaction.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public UserProfileDto registerUser(UserRegistrationDto dto) {
         String username = normalizeUsername(dto.username());
         String email = normalizeEmail(dto.email());
@@ -68,7 +71,7 @@ public class UserService {
         User user = User.create(
                 username,
                 email,
-                passwordEncoder.encode(dto.password()),
+                passwordHasher.encode(dto.password()),
                 displayName
         );
 
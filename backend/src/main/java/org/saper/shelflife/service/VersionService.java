@@ -0,0 +1,70 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.model.UserVersions;
+import org.saper.shelflife.repository.UserVersionsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user collection versions used as ETags for conditional GETs.
+ * <p>
+ * Writers bump the counter in the same transaction as their change, so a rolled-back
+ * write never advances it. Readers check the version before loading any rows; reading it
+ * first means a response can only be tagged older than its data, never newer.
+ */
+@Service
+@Transactional
+public class VersionService {
+
+    private final UserVersionsRepository userVersionsRepository;
+
+    public VersionService(UserVersionsRepository userVersionsRepository) {
+        this.userVersionsRepository = userVersionsRepository;
+    }
+
+    // ---------- Queries ----------
+
+    @Transactional(readOnly = true)
+    public long getWorksVersion(Long userId) {
+        return find(userId).getWorksVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public long getSessionsVersion(Long userId) {
+        return find(userId).getSessionsVersion();
+    }
+
+    @Transactional(readOnly = true)
+    public long getReviewsVersion(Long userId) {
+        return find(userId).getReviewsVersion();
+    }
+
+    // ---------- Write hooks ----------
+
+    public void onWorksChanged(Long userId) {
+        userVersionsRepository.bump(userId, 1, 0, 0);
+    }
+
+    public void onSessionsChanged(Long userId) {
+        userVersionsRepository.bump(userId, 0, 1, 0);
+    }
+
+    public void onReviewsChanged(Long userId) {
+        userVersionsRepository.bump(userId, 0, 0, 1);
+    }
+
+    /**
+     * Deleting a work cascades to its sessions and review, so every collection changes.
+     */
+    public void onWorkDeleted(Long userId) {
+        userVersionsRepository.bump(userId, 1, 1, 1);
+    }
+
+    // ---------- Internal helpers ----------
+
+    private UserVersions find(Long userId) {
+        // No row yet means nothing has been written: version 0
+        return userVersionsRepository.findById(userId)
+                .orElseGet(UserVersions::new);
+    }
+}
@@ -0,0 +1,51 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.model.WorkStatus;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of the last work on a library page: (status, title, id).
+ * Encoded as an opaque base64url string so clients don't depend on its shape.
+ */
+record WorkCursor(WorkStatus status, String title, Long id) {
+
+    static WorkCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+
+            // status:id:title (title last, since it may itself contain ':')
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw invalidCursor();
+            }
+
+            return new WorkCursor(
+                    WorkStatus.valueOf(parts[0]),
+                    parts[2],
+                    Long.parseLong(parts[1])
+            );
+        } catch (IllegalArgumentException ex) {
+            // Covers bad base64, unknown status and NumberFormatException
+            throw invalidCursor();
+        }
+    }
+
+    String encode() {
+        String raw = status.name() + ":" + id + ":" + title;
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ResponseStatusException invalidCursor() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+}
@@ -0,0 +1,194 @@
+package org.saper.shelflife.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.saper.shelflife.repository.ReviewRepository;
+import org.saper.shelflife.repository.SessionRepository;
+import org.saper.shelflife.repository.WorkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes works with set-based statements instead of the entity cascade, which would load
+ * every session and review and delete them one by one.
+ * <p>
+ * A typical work goes in one transaction: stats are adjusted, then sessions, review, rollup
+ * row and work are each removed with a single DELETE. Works with more sessions than
+ * {@code shelflife.work-delete.sync-max-sessions} are handed to a background worker that
+ * deletes their sessions in chunks, one short transaction each (stats stay consistent
+ * after every chunk), and then removes the rest. If the server stops half way, deleting
+ * the work again picks up where it left off.
+ */
+@Service
+public class WorkDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkDeletionService.class);
+
+    private final WorkRepository workRepository;
+    private final SessionRepository sessionRepository;
+    private final ReviewRepository reviewRepository;
+    private final StatsService statsService;
+    private final LibraryCache libraryCache;
+    private final VersionService versionService;
+    private final TransactionTemplate transactionTemplate;
+    private final long syncMaxSessions;
+    private final int chunkSize;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+
+    // Works being deleted in the background, so a repeated DELETE doesn't queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public WorkDeletionService(WorkRepository workRepository,
+                               SessionRepository sessionRepository,
+                               ReviewRepository reviewRepository,
+                               StatsService statsService,
+                               LibraryCache libraryCache,
+                               VersionService versionService,
+                               TransactionTemplate transactionTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${shelflife.work-delete.sync-max-sessions:10000}") long syncMaxSessions,
+                               @Value("${shelflife.work-delete.chunk-size:2000}") int chunkSize,
+                               @Value("${shelflife.work-delete.queue-capacity:32}") int queueCapacity,
+                               @Value("${shelflife.work-delete.retry-after-seconds:10}") long retryAfterSeconds) {
+        this.workRepository = workRepository;
+        this.sessionRepository = sessionRepository;
+        this.reviewRepository = reviewRepository;
+        this.statsService = statsService;
+        this.libraryCache = libraryCache;
+        this.versionService = versionService;
+        this.transactionTemplate = transactionTemplate;
+        this.syncMaxSessions = syncMaxSessions;
+        this.chunkSize = chunkSize;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        // One worker: large deletes are rare, and running them one at a time keeps lock and undo pressure low
+        this.executor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("work-delete-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        new ExecutorServiceMetrics(executor, "work-delete", List.of()).bindTo(meterRegistry);
+    }
+
+    // ---------- Commands ----------
+
+    /**
+     * Deletes the user's work with its sessions and review.
+     *
+     * @return true if the work is gone, false if it is large and being deleted in the background
+     */
+    @Transactional
+    public boolean deleteWork(Long userId, Long workId) {
+        if (!workRepository.existsByIdAndUserId(workId, userId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND,
+                    "Work not found"
+            );
+        }
+
+        if (inFlight.contains(workId)) {
+            return false;
+        }
+        if (sessionRepository.countByWorkId(workId) > syncMaxSessions) {
+            deleteInBackground(userId, workId);
+            return false;
+        }
+
+        purge(userId, workId);
+        return true;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ---------- Internal helpers ----------
+
+    /**
+     * Removes the work and everything hanging off it with one statement per table.
+     */
+    private void purge(Long userId, Long workId) {
+        // New sessions check their work_id against the work row, so with it locked none can be
+        // added between subtracting the sessions and deleting them: both see the same rows
+        workRepository.lockById(workId);
+        // Subtract the work's sessions from the rollups while they still exist
+        statsService.onWorkDeleting(userId, workId);
+        sessionRepository.deleteByWorkIdInBulk(workId);
+        reviewRepository.deleteByWorkIdInBulk(workId);
+        workRepository.deleteByIdInBulk(workId);
+
+        libraryCache.invalidate(userId);
+        versionService.onWorkDeleted(userId);
+    }
+
+    private void deleteInBackground(Long userId, Long workId) {
+        if (!inFlight.add(workId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> BackgroundWork.run(() -> deleteInChunks(userId, workId)));
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(workId);
+            throw new ServiceBusyException("Too many large deletes queued right now, please retry shortly", retryAfterSeconds);
+        }
+    }
+
+    private void deleteInChunks(Long userId, Long workId) {
+        try {
+            boolean more = true;
+            while (more && !Thread.currentThread().isInterrupted()) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteChunk(userId, workId)));
+            }
+            if (!Thread.currentThread().isInterrupted()) {
+                // Sessions added meanwhile (if any) go with the final bulk delete
+                transactionTemplate.executeWithoutResult(status -> purge(userId, workId));
+                log.info("Deleted work {} in the background", workId);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Background delete of work {} failed; deleting it again resumes from here", workId, ex);
+        } finally {
+            inFlight.remove(workId);
+        }
+    }
+
+    /**
+     * Deletes the next chunk of the work's sessions.
+     *
+     * @return true if there may be more to delete
+     */
+    private boolean deleteChunk(Long userId, Long workId) {
+        List<Long> ids = sessionRepository.findIdsByWorkId(workId, Limit.of(chunkSize));
+        if (ids.isEmpty()) {
+            return false;
+        }
+
+        statsService.onSessionsDeleting(userId, sessionRepository.findContributionsByIdIn(ids));
+        sessionRepository.deleteByIdInBulk(ids);
+        versionService.onSessionsChanged(userId);
+        return ids.size() == chunkSize;
+    }
+}
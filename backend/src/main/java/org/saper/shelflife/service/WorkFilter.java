@@ -0,0 +1,54 @@
+package org.saper.shelflife.service;
+
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+
+/**
+ * Optional library filters for GET /api/works. Null fields don't filter.
+ * Genre and creator match exactly; titlePrefix matches the start of the title.
+ * Case sensitivity follows the column collation (insensitive on utf8mb4_*_ci).
+ */
+public record WorkFilter(
+        WorkStatus status,
+        WorkType type,
+        String genre,
+        String creator,
+        String titlePrefix
+) {
+
+    public static final WorkFilter NONE = new WorkFilter(null, null, null, null, null);
+
+    private static final char LIKE_ESCAPE = '!';
+
+    public WorkFilter {
+        genre = blankToNull(genre);
+        creator = blankToNull(creator);
+        titlePrefix = blankToNull(titlePrefix);
+    }
+
+    public boolean isEmpty() {
+        return status == null && type == null && genre == null && creator == null && titlePrefix == null;
+    }
+
+    /**
+     * LIKE pattern for titlePrefix with wildcards escaped (escape char '!'), or null.
+     */
+    String titlePattern() {
+        if (titlePrefix == null) return null;
+
+        StringBuilder sb = new StringBuilder(titlePrefix.length() + 4);
+        for (char c : titlePrefix.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                sb.append(LIKE_ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -1,5 +1,6 @@
 package org.saper.shelflife.service;
 
+import org.saper.shelflife.dto.CursorPageDto;
 import org.saper.shelflife.dto.WorkCreateUpdateDto;
 import org.saper.shelflife.dto.WorkDetailDto;
 import org.saper.shelflife.dto.WorkSummaryDto;
@@ -8,11 +9,14 @@ import org.saper.shelflife.model.Work;
 import org.saper.shelflife.model.WorkStatus;
 import org.saper.shelflife.repository.UserRepository;
 import org.saper.shelflife.repository.WorkRepository;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 
@@ -20,30 +24,118 @@ import java.util.List;
 @Transactional
 public class WorkService {
 
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Statuses in library display order; paging walks these buckets one after another.
+     */
+    private static final List<WorkStatus> STATUS_ORDER = Arrays.stream(WorkStatus.values())
+            .sorted(Comparator.comparingInt(WorkService::statusSortOrder))
+            .toList();
+
+    /**
+     * Library order: explicit status order, then title (case-insensitive).
+     */
+    private static final Comparator<WorkSummaryDto> LIBRARY_ORDER = Comparator
+            .comparingInt((WorkSummaryDto w) -> statusSortOrder(w.status()))
+            .thenComparing(
+                    w -> w.title() != null ? w.title() : "",
+                    String.CASE_INSENSITIVE_ORDER
+            );
+
     private final WorkRepository workRepository;
     private final UserRepository userRepository;
+    private final LibraryCache libraryCache;
+    private final VersionService versionService;
 
-    public WorkService(WorkRepository workRepository, UserRepository userRepository) {
+    public WorkService(WorkRepository workRepository,
+                       UserRepository userRepository,
+                       LibraryCache libraryCache,
+                       VersionService versionService) {
         this.workRepository = workRepository;
         this.userRepository = userRepository;
+        this.libraryCache = libraryCache;
+        this.versionService = versionService;
     }
 
     // ---------- Queries ----------
 
     @Transactional(readOnly = true)
     public List<WorkSummaryDto> getWorksForUser(Long userId) {
-        return workRepository.findByUserId(userId).stream()
-                // Sort by explicit status order, then by title (case-insensitive)
-                .sorted(
-                        Comparator
-                                .comparingInt((Work w) -> statusSortOrder(w.getStatus()))
-                                .thenComparing(
-                                        w -> w.getTitle() != null ? w.getTitle() : "",
-                                        String.CASE_INSENSITIVE_ORDER
-                                )
-                )
-                .map(this::toSummaryDto)
-                .toList();
+        return getWorksForUser(userId, WorkFilter.NONE);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WorkSummaryDto> getWorksForUser(Long userId, WorkFilter filter) {
+        // The full library is cached per user; filtered views go to the database
+        if (filter.isEmpty()) {
+            return libraryCache.get(userId, id -> sortForLibrary(workRepository.findSummariesByUserId(id)));
+        }
+
+        // Projection queries: rows go straight into DTOs, no entities are hydrated
+        return sortForLibrary(workRepository.findFilteredSummaries(
+                userId,
+                filter.status(),
+                filter.type(),
+                filter.genre(),
+                filter.creator(),
+                filter.titlePattern()
+        ));
+    }
+
+    /**
+     * Keyset-paginated library listing, same order as getWorksForUser
+     * but sorted and limited in the database.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDto<WorkSummaryDto> getWorkPage(
+            Long userId,
+            WorkFilter filter,
+            int limit,
+            String cursor
+    ) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be at least 1");
+        }
+        int pageSize = Math.min(limit, MAX_PAGE_SIZE);
+        WorkCursor after = WorkCursor.decode(cursor);
+
+        // Fetch one extra row so we know whether another page exists
+        List<WorkSummaryDto> items = new ArrayList<>(pageSize + 1);
+        for (WorkStatus status : STATUS_ORDER) {
+            if (filter.status() != null && status != filter.status()) {
+                continue;
+            }
+            if (after != null && statusSortOrder(status) < statusSortOrder(after.status())) {
+                continue; // bucket already fully consumed by earlier pages
+            }
+
+            boolean resume = after != null && status == after.status();
+            items.addAll(workRepository.findSummaryPageByUserIdAndStatus(
+                    userId,
+                    status,
+                    filter.type(),
+                    filter.genre(),
+                    filter.creator(),
+                    filter.titlePattern(),
+                    resume ? after.title() : "",
+                    resume ? after.id() : 0L,
+                    Limit.of(pageSize + 1 - items.size())
+            ));
+
+            if (items.size() > pageSize) {
+                break;
+            }
+        }
+
+        if (items.size() <= pageSize) {
+            return new CursorPageDto<>(items, null);
+        }
+
+        List<WorkSummaryDto> page = items.subList(0, pageSize);
+        WorkSummaryDto last = page.get(pageSize - 1);
+        String nextCursor = new WorkCursor(last.status(), last.title(), last.id()).encode();
+        return new CursorPageDto<>(List.copyOf(page), nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -55,11 +147,9 @@ public class WorkService {
     // ---------- Commands ----------
 
     public WorkDetailDto createWork(Long userId, WorkCreateUpdateDto dto) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(
-                        HttpStatus.NOT_FOUND,
-                        "User not found"
-                ));
+        // userId comes from a verified token and users are never deleted, so the row exists:
+        // a proxy is enough to set user_id without selecting it
+        User user = userRepository.getReferenceById(userId);
 
         // Use factory for base wiring + type/status defaults
         Work work = Work.createForUser(
@@ -73,6 +163,8 @@ public class WorkService {
         applyDtoToWork(dto, work);
 
         Work saved = workRepository.save(work);
+        libraryCache.invalidate(userId);
+        versionService.onWorksChanged(userId);
         return toDetailDto(saved);
     }
 
@@ -80,14 +172,11 @@ public class WorkService {
         Work work = getWorkForUserOrThrow(userId, workId);
         applyDtoToWork(dto, work);
         Work saved = workRepository.save(work);
+        libraryCache.invalidate(userId);
+        versionService.onWorksChanged(userId);
         return toDetailDto(saved);
     }
 
-    public void deleteWork(Long userId, Long workId) {
-        Work work = getWorkForUserOrThrow(userId, workId);
-        workRepository.delete(work);
-    }
-
     // ---------- Internal helpers ----------
 
     private Work getWorkForUserOrThrow(Long userId, Long workId) {
@@ -99,10 +188,16 @@ public class WorkService {
                 ));
     }
 
+    private static List<WorkSummaryDto> sortForLibrary(List<WorkSummaryDto> works) {
+        return works.stream()
+                .sorted(LIBRARY_ORDER)
+                .toList();
+    }
+
     /**
      * Explicit sort order for statuses so we’re not tied to enum ordinal().
      */
-    private int statusSortOrder(WorkStatus status) {
+    private static int statusSortOrder(WorkStatus status) {
         if (status == null) return Integer.MAX_VALUE;
 
         return switch (status) {
@@ -113,17 +208,6 @@ public class WorkService {
         };
     }
 
-    private WorkSummaryDto toSummaryDto(Work work) {
-        return new WorkSummaryDto(
-                work.getId(),
-                work.getTitle(),
-                work.getCreator(),
-                work.getType(),
-                work.getGenre(),
-                work.getStatus()
-        );
-    }
-
     private WorkDetailDto toDetailDto(Work work) {
         return new WorkDetailDto(
                 work.getId(),
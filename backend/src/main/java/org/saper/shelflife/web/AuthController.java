@@ -10,7 +10,6 @@ import org.saper.shelflife.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -37,36 +36,7 @@ public class AuthController {
     }
 
     @GetMapping("/me")
-    public UserProfileDto me(
-            @RequestHeader(value = "Authorization", required = false) String authHeader
-    ) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Missing or invalid Authorization header"
-            );
-        }
-
-        String token = authHeader.substring("Bearer ".length());
-        String prefix = "demo-token-user-";
-
-        if (!token.startsWith(prefix)) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-
-        Long userId;
-        try {
-            userId = Long.parseLong(token.substring(prefix.length()));
-        } catch (NumberFormatException ex) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-
+    public UserProfileDto me(@CurrentUserId Long userId) {
         return userService.getUserProfile(userId);
     }
 }
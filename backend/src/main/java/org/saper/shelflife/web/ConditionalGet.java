@@ -0,0 +1,42 @@
+package org.saper.shelflife.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Strong-ETag helper for list endpoints backed by VersionService counters.
+ * <p>
+ * The tag is {@code "<collection>-<userId>-<version>-<target>"}: the user id keeps tags from
+ * matching across accounts that share a browser, the version changes on every write, and the
+ * target (a hash of path and query string) keeps each filter, page and snippet length of a
+ * collection its own representation.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    /**
+     * Sets ETag / Cache-Control on the response and returns true when the client's
+     * If-None-Match already matches, in which case the caller should return null
+     * (Spring then sends 304 with no body).
+     */
+    static boolean notModified(ServletWebRequest request, String collection, Long userId, long version) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // Always revalidate; responses are per-user and must not sit in shared caches
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+
+        String etag = "\"" + collection + "-" + userId + "-" + version + "-" + target(request.getRequest()) + "\"";
+        return request.checkNotModified(etag);
+    }
+
+    private static String target(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String target = query != null ? request.getRequestURI() + "?" + query : request.getRequestURI();
+        return Integer.toHexString(target.hashCode());
+    }
+}
@@ -0,0 +1,66 @@
+package org.saper.shelflife.web;
+
+import org.saper.shelflife.service.TokenService;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Resolves {@link CurrentUserId} parameters by verifying the Authorization: Bearer token.
+ * <p>
+ * The verified id is kept on the request ({@link #USER_ID_ATTRIBUTE}), so the token is checked
+ * once per request and SqlTraceFilter can name the user in its N+1 warnings. Tokens are only issued to existing users, which are never deleted, so the id
+ * is all services need: they attach the user with a reference proxy instead of loading the row.
+ */
+@Component
+public class CurrentUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    /**
+     * Request attribute holding the authenticated user's id once a handler has resolved it.
+     */
+    public static final String USER_ID_ATTRIBUTE = CurrentUserIdArgumentResolver.class.getName() + ".userId";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+
+    public CurrentUserIdArgumentResolver(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUserId.class)
+                && Long.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Long resolveArgument(MethodParameter parameter,
+                                ModelAndViewContainer mavContainer,
+                                NativeWebRequest webRequest,
+                                WebDataBinderFactory binderFactory) {
+        Object resolved = webRequest.getAttribute(USER_ID_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (resolved instanceof Long userId) {
+            return userId;
+        }
+
+        String authHeader = webRequest.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            throw new ResponseStatusException(
+                    HttpStatus.UNAUTHORIZED,
+                    "Missing or invalid Authorization header"
+            );
+        }
+
+        Long userId = tokenService.verify(authHeader.substring(BEARER_PREFIX.length()));
+        webRequest.setAttribute(USER_ID_ATTRIBUTE, userId, RequestAttributes.SCOPE_REQUEST);
+        return userId;
+    }
+}
@@ -0,0 +1,76 @@
+package org.saper.shelflife.web;
+
+import org.saper.shelflife.service.ExportFormat;
+import org.saper.shelflife.service.ExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+    private final Duration timeout;
+
+    public ExportController(
+            ExportService exportService,
+            @Value("${shelflife.export.timeout:30m}") Duration timeout
+    ) {
+        this.exportService = exportService;
+        this.timeout = timeout;
+    }
+
+    /**
+     * GET /api/export?format=NDJSON|ZIP
+     * Streams the current user's whole account as a download; memory use doesn't grow with its size.
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "format", defaultValue = "NDJSON") ExportFormat format,
+            NativeWebRequest request
+    ) {
+        // Reserve the slot up front, so a busy server still answers with a normal 503
+        ExportService.Export export = exportService.openExport(userId, format);
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportController.class, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest req, Callable<T> task) {
+                // The default async timeout is sized for ordinary requests, not for a whole account
+                if (req instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(timeout.toMillis());
+                }
+            }
+
+            @Override
+            public <T> void afterCompletion(NativeWebRequest req, Callable<T> task) {
+                // Frees the slot if the body was never written (rejected task, timeout, client gone)
+                export.close();
+            }
+        });
+
+        boolean zip = format == ExportFormat.ZIP;
+        String fileName = "shelflife-export-" + LocalDate.now(ZoneOffset.UTC) + (zip ? ".zip" : ".ndjson");
+
+        return ResponseEntity.ok()
+                .contentType(zip ? MediaType.parseMediaType("application/zip") : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(export::writeTo);
+    }
+}
@@ -0,0 +1,56 @@
+package org.saper.shelflife.web;
+
+import org.saper.shelflife.dto.ImportJobDto;
+import org.saper.shelflife.model.ImportFormat;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.service.ImportService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/imports")
+public class ImportController {
+
+    private final ImportService importService;
+
+    public ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * POST /api/imports (multipart: file, optional format and status)
+     * Starts a background import and returns 202 with the job; poll its Location for progress.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDto> startImport(
+            @CurrentUserId Long userId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(name = "format", required = false) ImportFormat format,
+            @RequestParam(name = "status", required = false) WorkStatus status
+    ) {
+        ImportJobDto job = importService.startImport(userId, file, format, status);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/imports/" + job.id()))
+                .body(job);
+    }
+
+    // GET /api/imports -> current user's recent imports
+    @GetMapping
+    public List<ImportJobDto> getImports(@CurrentUserId Long userId) {
+        return importService.getJobsForUser(userId);
+    }
+
+    // GET /api/imports/{id} -> progress of one import
+    @GetMapping("/{id}")
+    public ImportJobDto getImport(
+            @PathVariable Long id,
+            @CurrentUserId Long userId
+    ) {
+        return importService.getJob(userId, id);
+    }
+}
@@ -1,12 +1,15 @@
 package org.saper.shelflife.web;
 
 import jakarta.validation.Valid;
+import org.saper.shelflife.dto.CursorPageDto;
 import org.saper.shelflife.dto.ReviewCreateUpdateDto;
 import org.saper.shelflife.dto.ReviewDto;
+import org.saper.shelflife.dto.ReviewSummaryDto;
 import org.saper.shelflife.service.ReviewService;
+import org.saper.shelflife.service.VersionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -15,29 +18,58 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final VersionService versionService;
 
-    public ReviewController(ReviewService reviewService) {
+    public ReviewController(ReviewService reviewService, VersionService versionService) {
         this.reviewService = reviewService;
+        this.versionService = versionService;
     }
 
     // ---------- Review collection endpoints ----------
 
-    // GET /api/reviews  -> all reviews for current user
+    /**
+     * GET /api/reviews?snippet=120
+     * All reviews for the current user, newest first, without bodies.
+     * snippet (optional) adds the first N characters of each body.
+     */
     @GetMapping("/reviews")
-    public List<ReviewDto> getReviews(
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+    public List<ReviewSummaryDto> getReviews(
+            ServletWebRequest request,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "snippet", defaultValue = "0") int snippet
+    ) {
+        if (ConditionalGet.notModified(request, "reviews", userId, versionService.getReviewsVersion(userId))) {
+            return null;
+        }
+
+        return reviewService.getReviewsForUser(userId, snippet);
+    }
+
+    /**
+     * GET /api/reviews?limit=50&cursor=...&snippet=120
+     * Keyset-paginated variant of the list above.
+     */
+    @GetMapping(value = "/reviews", params = "limit")
+    public CursorPageDto<ReviewSummaryDto> getReviewPage(
+            ServletWebRequest request,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "snippet", defaultValue = "0") int snippet
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
-        return reviewService.getReviewsForUser(userId);
+        if (ConditionalGet.notModified(request, "reviews", userId, versionService.getReviewsVersion(userId))) {
+            return null;
+        }
+
+        return reviewService.getReviewPage(userId, limit, cursor, snippet);
     }
 
     // GET /api/reviews/{id} -> single review by id (must belong to current user)
     @GetMapping("/reviews/{id}")
     public ReviewDto getReview(
             @PathVariable Long id,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return reviewService.getReviewById(userId, id);
     }
 
@@ -46,9 +78,8 @@ public class ReviewController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteReview(
             @PathVariable Long id,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         reviewService.deleteReview(userId, id);
     }
 
@@ -57,13 +88,18 @@ public class ReviewController {
     /**
      * GET /api/works/{workId}/review
      * Returns either a ReviewDto or null if the user hasn't reviewed this work yet.
+     * Returns 304 when If-None-Match carries the current ETag.
      */
     @GetMapping("/works/{workId}/review")
     public ReviewDto getReviewForWork(
+            ServletWebRequest request,
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
+        if (ConditionalGet.notModified(request, "reviews", userId, versionService.getReviewsVersion(userId))) {
+            return null;
+        }
+
         return reviewService.getReviewForWorkOrNull(userId, workId); // may be null; 200 with null body is OK
     }
 
@@ -74,11 +110,9 @@ public class ReviewController {
     @PutMapping("/works/{workId}/review")
     public ReviewDto upsertReviewForWork(
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @CurrentUserId Long userId,
             @Valid @RequestBody ReviewCreateUpdateDto body
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
-
         // Ensure path and body workId can't drift apart
         ReviewCreateUpdateDto dto = new ReviewCreateUpdateDto(
                 workId,
@@ -90,34 +124,4 @@ public class ReviewController {
 
         return reviewService.upsertReview(userId, dto);
     }
-
-    // ---------- Demo-token helper (same pattern as other controllers) ----------
-
-    private Long extractUserIdFromDemoToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Missing or invalid Authorization header"
-            );
-        }
-
-        String token = authHeader.substring("Bearer ".length());
-        String prefix = "demo-token-user-";
-
-        if (!token.startsWith(prefix)) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-
-        try {
-            return Long.parseLong(token.substring(prefix.length()));
-        } catch (NumberFormatException ex) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-    }
 }
@@ -0,0 +1,32 @@
+package org.saper.shelflife.web;
+
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.SearchHitDto;
+import org.saper.shelflife.service.SearchService;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * GET /api/search?q=dune&limit=20&cursor=...
+     * Ranked matches across work title/creator/genre and review title/body.
+     * Pass back nextCursor to get the following page.
+     */
+    @GetMapping
+    public CursorPageDto<SearchHitDto> search(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor
+    ) {
+        return searchService.search(userId, q, limit, cursor);
+    }
+}
@@ -1,13 +1,18 @@
 package org.saper.shelflife.web;
 
 import jakarta.validation.Valid;
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.SessionBatchRequestDto;
+import org.saper.shelflife.dto.SessionBatchResultDto;
 import org.saper.shelflife.dto.SessionCreateUpdateDto;
 import org.saper.shelflife.dto.SessionDto;
 import org.saper.shelflife.service.SessionService;
+import org.saper.shelflife.service.VersionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.Instant;
 import java.util.List;
 
 @RestController
@@ -15,32 +20,60 @@ import java.util.List;
 public class SessionController {
 
     private final SessionService sessionService;
+    private final VersionService versionService;
 
-    public SessionController(SessionService sessionService) {
+    public SessionController(SessionService sessionService, VersionService versionService) {
         this.sessionService = sessionService;
+        this.versionService = versionService;
     }
 
     // ---------- Collection endpoints ----------
 
-    // GET /api/sessions or /api/sessions?workId=1
+    // GET /api/sessions or /api/sessions?workId=1&from=2025-01-01T00:00:00Z&to=2025-02-01T00:00:00Z
     @GetMapping("/sessions")
     public List<SessionDto> getSessions(
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
-            @RequestParam(name = "workId", required = false) Long workId
+            ServletWebRequest request,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "workId", required = false) Long workId,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
+        if (ConditionalGet.notModified(request, "sessions", userId, versionService.getSessionsVersion(userId))) {
+            return null;
+        }
+
         return (workId == null)
-                ? sessionService.getSessionsForUser(userId)
-                : sessionService.getSessionsForWork(userId, workId);
+                ? sessionService.getSessionsForUser(userId, from, to)
+                : sessionService.getSessionsForWork(userId, workId, from, to);
+    }
+
+    /**
+     * GET /api/sessions?limit=50&cursor=...
+     * Keyset-paginated variant (newest first); accepts the same workId / from / to filters.
+     */
+    @GetMapping(value = "/sessions", params = "limit")
+    public CursorPageDto<SessionDto> getSessionPage(
+            ServletWebRequest request,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "workId", required = false) Long workId,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor
+    ) {
+        if (ConditionalGet.notModified(request, "sessions", userId, versionService.getSessionsVersion(userId))) {
+            return null;
+        }
+
+        return sessionService.getSessionPage(userId, workId, from, to, limit, cursor);
     }
 
     // GET /api/sessions/{id}
     @GetMapping("/sessions/{id}")
     public SessionDto getSession(
             @PathVariable Long id,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return sessionService.getSession(userId, id);
     }
 
@@ -48,21 +81,32 @@ public class SessionController {
     @PostMapping("/sessions")
     @ResponseStatus(HttpStatus.CREATED)
     public SessionDto createSession(
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @CurrentUserId Long userId,
             @Valid @RequestBody SessionCreateUpdateDto dto
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return sessionService.createSession(userId, dto);
     }
 
+    /**
+     * POST /api/sessions:batch
+     * Offline sync: up to 500 sessions in one call, each with an optional idempotencyKey.
+     * Always 200 with a per-item result (CREATED / DUPLICATE / REJECTED) in request order.
+     */
+    @PostMapping("/sessions:batch")
+    public SessionBatchResultDto createSessionBatch(
+            @CurrentUserId Long userId,
+            @Valid @RequestBody SessionBatchRequestDto body
+    ) {
+        return sessionService.createSessionBatch(userId, body.items());
+    }
+
     // PUT /api/sessions/{id}
     @PutMapping("/sessions/{id}")
     public SessionDto updateSession(
             @PathVariable Long id,
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @CurrentUserId Long userId,
             @Valid @RequestBody SessionCreateUpdateDto dto
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return sessionService.updateSession(userId, id, dto);
     }
 
@@ -71,9 +115,8 @@ public class SessionController {
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void deleteSession(
             @PathVariable Long id,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         sessionService.deleteSession(userId, id);
     }
 
@@ -85,11 +128,38 @@ public class SessionController {
      */
     @GetMapping("/works/{workId}/sessions")
     public List<SessionDto> getSessionsForWork(
+            ServletWebRequest request,
+            @PathVariable Long workId,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to
+    ) {
+        if (ConditionalGet.notModified(request, "sessions", userId, versionService.getSessionsVersion(userId))) {
+            return null;
+        }
+
+        return sessionService.getSessionsForWork(userId, workId, from, to);
+    }
+
+    /**
+     * GET /api/works/{workId}/sessions?limit=50&cursor=...
+     * Keyset-paginated variant of the work's session timeline.
+     */
+    @GetMapping(value = "/works/{workId}/sessions", params = "limit")
+    public CursorPageDto<SessionDto> getSessionPageForWork(
+            ServletWebRequest request,
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId,
+            @RequestParam(name = "from", required = false) Instant from,
+            @RequestParam(name = "to", required = false) Instant to,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
-        return sessionService.getSessionsForWork(userId, workId);
+        if (ConditionalGet.notModified(request, "sessions", userId, versionService.getSessionsVersion(userId))) {
+            return null;
+        }
+
+        return sessionService.getSessionPage(userId, workId, from, to, limit, cursor);
     }
 
     /**
@@ -100,11 +170,9 @@ public class SessionController {
     @ResponseStatus(HttpStatus.CREATED)
     public SessionDto createSessionForWork(
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @CurrentUserId Long userId,
             @Valid @RequestBody SessionCreateUpdateDto body
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
-
         SessionCreateUpdateDto dto = new SessionCreateUpdateDto(
                 workId,
                 body.startedAt(),
@@ -116,34 +184,4 @@ public class SessionController {
 
         return sessionService.createSessionForWork(userId, workId, dto);
     }
-
-    // ---------- Demo-token helper (same pattern as WorkController/AuthController) ----------
-
-    private Long extractUserIdFromDemoToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Missing or invalid Authorization header"
-            );
-        }
-
-        String token = authHeader.substring("Bearer ".length());
-        String prefix = "demo-token-user-";
-
-        if (!token.startsWith(prefix)) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-
-        try {
-            return Long.parseLong(token.substring(prefix.length()));
-        } catch (NumberFormatException ex) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-    }
 }
@@ -0,0 +1,91 @@
+package org.saper.shelflife.web;
+
+import org.saper.shelflife.dto.DailyStatsDto;
+import org.saper.shelflife.dto.StatsSummaryDto;
+import org.saper.shelflife.dto.WorkStatsDto;
+import org.saper.shelflife.service.ActivityGranularity;
+import org.saper.shelflife.service.ActivityQuery;
+import org.saper.shelflife.service.StatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final StatsService statsService;
+    private final ObjectMapper objectMapper;
+
+    public StatsController(StatsService statsService, ObjectMapper objectMapper) {
+        this.statsService = statsService;
+        this.objectMapper = objectMapper;
+    }
+
+    // GET /api/stats/summary -> all-time totals
+    @GetMapping("/summary")
+    public StatsSummaryDto getSummary(
+            @CurrentUserId Long userId
+    ) {
+        return statsService.getSummary(userId);
+    }
+
+    /**
+     * GET /api/stats/daily?from=2025-01-01&to=2025-01-31
+     * Days without sessions are omitted. Defaults to the last 30 days (UTC).
+     */
+    @GetMapping("/daily")
+    public List<DailyStatsDto> getDailyStats(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return statsService.getDailyStats(userId, from, to);
+    }
+
+    // GET /api/stats/works?limit=10 -> most-read works by minutes
+    @GetMapping("/works")
+    public List<WorkStatsDto> getTopWorks(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        return statsService.getTopWorks(userId, limit);
+    }
+
+    /**
+     * GET /api/stats/activity?from=2025-01-01&to=2025-06-30&granularity=WEEK
+     * Minutes / units / session counts per time bucket and work type, aggregated in the
+     * database and streamed out as a JSON array of ActivityBucketDto.
+     */
+    @GetMapping("/activity")
+    public ResponseEntity<StreamingResponseBody> getActivity(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "granularity", required = false) ActivityGranularity granularity
+    ) {
+        // Validate before streaming starts, so bad input still gets a normal 400 body
+        ActivityQuery query = ActivityQuery.of(from, to, granularity);
+
+        StreamingResponseBody body = out -> {
+            // Only close on success: closing would auto-complete the array and turn a
+            // failed query into a valid-looking "[]". Unflushed output is discarded instead.
+            JsonGenerator gen = objectMapper.createGenerator(out);
+            gen.writeStartArray();
+            statsService.streamActivity(userId, query, gen::writePOJO);
+            gen.writeEndArray();
+            gen.close();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+}
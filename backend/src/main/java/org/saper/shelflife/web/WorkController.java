@@ -1,13 +1,23 @@
 package org.saper.shelflife.web;
 
 import jakarta.validation.Valid;
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.SuggestionDto;
 import org.saper.shelflife.dto.WorkCreateUpdateDto;
 import org.saper.shelflife.dto.WorkDetailDto;
 import org.saper.shelflife.dto.WorkSummaryDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.service.SuggestionField;
+import org.saper.shelflife.service.TypeaheadService;
+import org.saper.shelflife.service.WorkDeletionService;
+import org.saper.shelflife.service.WorkFilter;
+import org.saper.shelflife.service.VersionService;
 import org.saper.shelflife.service.WorkService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -16,85 +26,119 @@ import java.util.List;
 public class WorkController {
 
     private final WorkService workService;
+    private final VersionService versionService;
+    private final TypeaheadService typeaheadService;
+    private final WorkDeletionService workDeletionService;
 
-    public WorkController(WorkService workService) {
+    public WorkController(WorkService workService,
+                          VersionService versionService,
+                          TypeaheadService typeaheadService,
+                          WorkDeletionService workDeletionService) {
         this.workService = workService;
+        this.versionService = versionService;
+        this.typeaheadService = typeaheadService;
+        this.workDeletionService = workDeletionService;
     }
 
+    /**
+     * GET /api/works?status=IN_PROGRESS&type=BOOK&genre=...&creator=...&titlePrefix=...
+     * All filters are optional and applied in the database.
+     * Returns 304 when If-None-Match carries the current ETag.
+     */
     @GetMapping
     public List<WorkSummaryDto> getWorks(
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            ServletWebRequest request,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "status", required = false) WorkStatus status,
+            @RequestParam(name = "type", required = false) WorkType type,
+            @RequestParam(name = "genre", required = false) String genre,
+            @RequestParam(name = "creator", required = false) String creator,
+            @RequestParam(name = "titlePrefix", required = false) String titlePrefix
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
-        return workService.getWorksForUser(userId);
+        if (ConditionalGet.notModified(request, "works", userId, versionService.getWorksVersion(userId))) {
+            return null;
+        }
+
+        WorkFilter filter = new WorkFilter(status, type, genre, creator, titlePrefix);
+        return workService.getWorksForUser(userId, filter);
+    }
+
+    /**
+     * GET /api/works?limit=50&cursor=...
+     * Keyset-paginated variant of the library listing; pass back nextCursor to get the following page.
+     * Accepts the same optional filters as the unpaginated listing.
+     */
+    @GetMapping(params = "limit")
+    public CursorPageDto<WorkSummaryDto> getWorkPage(
+            ServletWebRequest request,
+            @CurrentUserId Long userId,
+            @RequestParam(name = "limit") int limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "status", required = false) WorkStatus status,
+            @RequestParam(name = "type", required = false) WorkType type,
+            @RequestParam(name = "genre", required = false) String genre,
+            @RequestParam(name = "creator", required = false) String creator,
+            @RequestParam(name = "titlePrefix", required = false) String titlePrefix
+    ) {
+        if (ConditionalGet.notModified(request, "works", userId, versionService.getWorksVersion(userId))) {
+            return null;
+        }
+
+        WorkFilter filter = new WorkFilter(status, type, genre, creator, titlePrefix);
+        return workService.getWorkPage(userId, filter, limit, cursor);
+    }
+
+    /**
+     * GET /api/works/suggest?field=TITLE&q=dun&limit=10
+     * Autocomplete over the user's own titles or creators (prefix of any word, case/accent-insensitive).
+     * Served from memory; a blank q returns an empty list.
+     */
+    @GetMapping("/suggest")
+    public List<SuggestionDto> suggest(
+            @CurrentUserId Long userId,
+            @RequestParam(name = "field", defaultValue = "TITLE") SuggestionField field,
+            @RequestParam(name = "q", required = false) String q,
+            @RequestParam(name = "limit", defaultValue = "10") int limit
+    ) {
+        return typeaheadService.suggest(userId, field, q, limit);
     }
 
     @GetMapping("/{workId}")
     public WorkDetailDto getWork(
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return workService.getWorkById(userId, workId);
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public WorkDetailDto createWork(
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @CurrentUserId Long userId,
             @Valid @RequestBody WorkCreateUpdateDto dto
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return workService.createWork(userId, dto);
     }
 
     @PutMapping("/{workId}")
     public WorkDetailDto updateWork(
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @CurrentUserId Long userId,
             @Valid @RequestBody WorkCreateUpdateDto dto
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
         return workService.updateWork(userId, workId, dto);
     }
 
+    /**
+     * DELETE /api/works/{workId}
+     * 204 once the work is gone; 202 when it has so many sessions that it is being deleted in the background.
+     */
     @DeleteMapping("/{workId}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteWork(
+    public ResponseEntity<Void> deleteWork(
             @PathVariable Long workId,
-            @RequestHeader(value = "Authorization", required = false) String authHeader
+            @CurrentUserId Long userId
     ) {
-        Long userId = extractUserIdFromDemoToken(authHeader);
-        workService.deleteWork(userId, workId);
-    }
-
-    // ---------- Demo-token helper (matches AuthController /me) ----------
-
-    private Long extractUserIdFromDemoToken(String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Missing or invalid Authorization header"
-            );
-        }
-
-        String token = authHeader.substring("Bearer ".length());
-        String prefix = "demo-token-user-";
-
-        if (!token.startsWith(prefix)) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
-
-        try {
-            return Long.parseLong(token.substring(prefix.length()));
-        } catch (NumberFormatException ex) {
-            throw new ResponseStatusException(
-                    HttpStatus.UNAUTHORIZED,
-                    "Invalid token"
-            );
-        }
+        boolean deleted = workDeletionService.deleteWork(userId, workId);
+        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.accepted().build();
     }
 }
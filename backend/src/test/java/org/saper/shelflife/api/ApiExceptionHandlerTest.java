@@ -0,0 +1,70 @@
+package org.saper.shelflife.api;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.model.Session;
+import org.saper.shelflife.model.User;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.repository.SessionRepository;
+import org.saper.shelflife.repository.UserRepository;
+import org.saper.shelflife.repository.WorkRepository;
+import org.saper.shelflife.service.UserService;
+import org.saper.shelflife.service.WorkService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ApiExceptionHandlerTest {
+
+    @Autowired
+    private ApiExceptionHandler handler;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WorkService workService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private WorkRepository workRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Test
+    void onlyTheIdempotencyKeyRaceIsAConflict() {
+        Long userId = userService.registerUser(new UserRegistrationDto("syncer", "syncer@example.com", "password1", null)).id();
+        Long workId = workService.createWork(userId, new WorkCreateUpdateDto(
+                "Dune", WorkType.BOOK, null, null, WorkStatus.IN_PROGRESS, null, null, null, null)).id();
+        User user = userRepository.getReferenceById(userId);
+
+        sessionRepository.saveAndFlush(session(user, workId, "key-1"));
+        DataIntegrityViolationException race = assertThrows(DataIntegrityViolationException.class,
+                () -> sessionRepository.saveAndFlush(session(user, workId, "key-1")));
+        DataIntegrityViolationException missingWork = assertThrows(DataIntegrityViolationException.class,
+                () -> sessionRepository.saveAndFlush(session(user, Long.MAX_VALUE, "key-2")));
+
+        assertEquals(409, handler.handleDataIntegrityViolation(race, new MockHttpServletRequest()).getStatusCode().value());
+        assertEquals(500, handler.handleDataIntegrityViolation(missingWork, new MockHttpServletRequest()).getStatusCode().value());
+    }
+
+    private Session session(User user, Long workId, String idempotencyKey) {
+        Session session = Session.create(user, workRepository.getReferenceById(workId), Instant.parse("2024-11-20T19:00:00Z"));
+        session.setMinutes(10);
+        session.setIdempotencyKey(idempotencyKey);
+        return session;
+    }
+}
@@ -0,0 +1,195 @@
+package org.saper.shelflife.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.service.BackgroundWork;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService otherThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private HikariDataSource pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:limiter");
+        pool.setMaximumPoolSize(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        otherThreads.shutdownNow();
+        pool.close();
+    }
+
+    @Test
+    void nestedConnectionsOfOneThreadShareItsPermit() throws Exception {
+        DataSource dataSource = limited(1, 10, Duration.ofMillis(50));
+
+        try (Connection outer = dataSource.getConnection(); Connection inner = dataSource.getConnection()) {
+            assertNotSame(outer, inner);
+            assertEquals(1.0, gauge("shelflife.db.limiter.active"));
+            assertThrows(SQLTransientConnectionException.class, () -> fromOtherThread(dataSource));
+        }
+
+        assertEquals(0.0, gauge("shelflife.db.limiter.active"));
+        assertDoesNotThrow(() -> fromOtherThread(dataSource));
+    }
+
+    @Test
+    void rejectsAtOnceWhenTheQueueIsFull() throws Exception {
+        DataSource dataSource = limited(1, 0, Duration.ofMinutes(1));
+
+        try (Connection ignored = dataSource.getConnection()) {
+            SQLTransientConnectionException ex = assertThrows(SQLTransientConnectionException.class, () -> fromOtherThread(dataSource));
+            assertTrue(ex.getMessage().startsWith("Too many"));
+        }
+        assertEquals(1.0, rejected("queue-full"));
+    }
+
+    @Test
+    void givesUpAfterTheAcquireTimeout() throws Exception {
+        DataSource dataSource = limited(1, 10, Duration.ofMillis(50));
+
+        try (Connection ignored = dataSource.getConnection()) {
+            SQLTransientConnectionException ex = assertThrows(SQLTransientConnectionException.class, () -> fromOtherThread(dataSource));
+            assertTrue(ex.getMessage().startsWith("Timed out"));
+        }
+        assertEquals(1.0, rejected("timeout"));
+        assertEquals(0.0, gauge("shelflife.db.limiter.waiting"));
+    }
+
+    @Test
+    void closingTwiceReleasesOnce() throws Exception {
+        DataSource dataSource = limited(2, 10, Duration.ofMillis(50));
+
+        Connection connection = dataSource.getConnection();
+        connection.close();
+        connection.close();
+
+        try (Connection ignored = dataSource.getConnection()) {
+            fromOtherThread(dataSource);
+            assertEquals(1.0, gauge("shelflife.db.limiter.active"));
+        }
+        assertEquals(0.0, gauge("shelflife.db.limiter.active"));
+    }
+
+    @Test
+    void backgroundWorkHasItsOwnBudget() throws Exception {
+        DataSource dataSource = limited(1, 10, Duration.ofMillis(50));
+
+        try (Connection ignored = dataSource.getConnection()) {
+            assertDoesNotThrow(() -> fromOtherThread(dataSource, true));
+        }
+        otherThreads.submit(() -> BackgroundWork.run(() -> {
+            try (Connection ignored = dataSource.getConnection()) {
+                assertEquals(1.0, gauge("shelflife.db.limiter.active", "background"));
+                assertThrows(SQLTransientConnectionException.class, () -> fromOtherThread(dataSource, true));
+                assertDoesNotThrow(() -> fromOtherThread(dataSource));
+            } catch (SQLException ex) {
+                fail(ex);
+            }
+        })).get();
+
+        assertEquals(0.0, gauge("shelflife.db.limiter.active", "background"));
+        assertEquals(1.0, rejected("timeout", "background"));
+        assertEquals(0.0, rejected("timeout", "requests"));
+    }
+
+    @Test
+    void bothBudgetsMustFitInThePool() {
+        // 4 exports + 2 import workers + delete worker + heartbeat = 8 background permits;
+        // derived request permits are what is left minus 2
+        assertDoesNotThrow(() -> limiter(11, 0));
+        assertThrows(IllegalStateException.class, () -> limiter(10, 0));
+        assertDoesNotThrow(() -> limiter(20, 11));
+        assertThrows(IllegalStateException.class, () -> limiter(20, 12));
+    }
+
+    @Test
+    void keepsThePoolsInterfacesUnderTheSqlTrace() throws Exception {
+        DataSource dataSource = SqlTracingDataSource.wrap(limited(1, 10, Duration.ofMillis(50)));
+
+        assertInstanceOf(Closeable.class, dataSource);
+        assertInstanceOf(HikariConfigMXBean.class, dataSource);
+        assertSame(pool, dataSource.unwrap(HikariDataSource.class));
+    }
+
+    private static ConnectionLimiter limiter(int poolSize, int maxConcurrent) {
+        return ConnectionLimitConfig.connectionLimiter(poolSize, maxConcurrent, 10, Duration.ofMillis(50), 4, 2);
+    }
+
+    private DataSource limited(int maxConcurrent, int maxWaiting, Duration acquireTimeout) {
+        ConnectionLimiter limiter = new ConnectionLimiter(maxConcurrent, 1, maxWaiting, acquireTimeout);
+        limiter.bindTo(registry);
+        return limiter.wrap(pool);
+    }
+
+    private void fromOtherThread(DataSource dataSource) throws Exception {
+        fromOtherThread(dataSource, false);
+    }
+
+    /**
+     * Opens and closes a connection on another thread, rethrowing what getConnection threw.
+     */
+    private void fromOtherThread(DataSource dataSource, boolean background) throws Exception {
+        Future<?> result = otherThreads.submit(() -> {
+            SQLException[] failure = new SQLException[1];
+            Runnable open = () -> {
+                try (Connection ignored = dataSource.getConnection()) {
+                    // opened and closed
+                } catch (SQLException ex) {
+                    failure[0] = ex;
+                }
+            };
+            if (background) {
+                BackgroundWork.run(open);
+            } else {
+                open.run();
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            return null;
+        });
+        try {
+            result.get();
+        } catch (ExecutionException ex) {
+            throw (Exception) ex.getCause();
+        }
+    }
+
+    private double gauge(String name) {
+        return gauge(name, "requests");
+    }
+
+    private double gauge(String name, String budget) {
+        return registry.get(name).tag("budget", budget).gauge().value();
+    }
+
+    private double rejected(String reason) {
+        return rejected(reason, "requests");
+    }
+
+    private double rejected(String reason, String budget) {
+        return registry.get("shelflife.db.limiter.rejected").tags("budget", budget, "reason", reason).functionCounter().count();
+    }
+}
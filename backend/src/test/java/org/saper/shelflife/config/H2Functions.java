@@ -0,0 +1,19 @@
+package org.saper.shelflife.config;
+
+import java.time.OffsetDateTime;
+
+/**
+ * MySQL functions H2 lacks, registered as aliases by the h2 profile's connection URL.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    /**
+     * MySQL's WEEKDAY: 0 for Monday through 6 for Sunday.
+     */
+    public static Integer weekday(OffsetDateTime value) {
+        return value == null ? null : value.getDayOfWeek().getValue() - 1;
+    }
+}
@@ -0,0 +1,51 @@
+package org.saper.shelflife.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Lets the streaming repository methods run on H2: their row-by-row fetch size is MySQL's
+ * {@code Integer.MIN_VALUE} marker, which H2 rejects, so negative fetch sizes are dropped.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class H2StreamingSupport {
+
+    @Bean
+    static BeanPostProcessor h2StreamingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    private static DataSource wrap(DataSource dataSource) {
+        return JdbcProxies.proxy(dataSource, JdbcProxies.interfacesOf(dataSource, DataSource.class), (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            return result instanceof Connection connection ? wrapConnection(connection) : result;
+        });
+    }
+
+    private static Connection wrapConnection(Connection connection) {
+        return JdbcProxies.proxy(connection, new Class<?>[]{Connection.class}, (target, method, args) -> {
+            Object result = JdbcProxies.invoke(target, method, args);
+            return result instanceof PreparedStatement statement ? wrapStatement(statement) : result;
+        });
+    }
+
+    private static Statement wrapStatement(PreparedStatement statement) {
+        return JdbcProxies.proxy(statement, new Class<?>[]{PreparedStatement.class}, (target, method, args) -> {
+            if (method.getName().equals("setFetchSize") && (int) args[0] < 0) {
+                return null;
+            }
+            return JdbcProxies.invoke(target, method, args);
+        });
+    }
+}
@@ -0,0 +1,66 @@
+package org.saper.shelflife.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.service.ServiceBusyException;
+import org.saper.shelflife.service.WorkService;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void tagsEachCallByOutcome() {
+        Library library = proxy(new Library());
+
+        library.find(1);
+        assertThrows(ResponseStatusException.class, () -> library.find(-1));
+        assertThrows(IllegalStateException.class, () -> library.find(0));
+
+        assertEquals(1, count("find", "SUCCESS", "none"));
+        assertEquals(1, count("find", "CLIENT_ERROR", "ResponseStatusException"));
+        assertEquals(1, count("find", "SERVER_ERROR", "IllegalStateException"));
+    }
+
+    @Test
+    void busyIsAServerError() {
+        assertEquals("SERVER_ERROR", ServiceMetricsInterceptor.outcome(new ServiceBusyException("busy", 1)));
+        assertEquals("CLIENT_ERROR", ServiceMetricsInterceptor.outcome(new ResponseStatusException(HttpStatus.CONFLICT)));
+    }
+
+    @Test
+    void matchesOnlyPublicMethodsTheServiceDeclares() throws NoSuchMethodException {
+        ServiceMetricsConfig.PublicServiceMethods pointcut = new ServiceMetricsConfig.PublicServiceMethods();
+
+        assertTrue(pointcut.matches(WorkService.class.getMethod("getWorksForUser", Long.class), WorkService.class));
+        assertFalse(pointcut.matches(Object.class.getMethod("toString"), WorkService.class));
+        assertFalse(pointcut.matches(Library.class.getMethod("find", int.class), Library.class));
+    }
+
+    private double count(String method, String outcome, String exception) {
+        return registry.get(ServiceMetricsInterceptor.METRIC)
+                .tags("class", "Library", "method", method, "outcome", outcome, "exception", exception)
+                .timer()
+                .count();
+    }
+
+    private Library proxy(Library target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new ServiceMetricsInterceptor(() -> registry));
+        return (Library) factory.getProxy();
+    }
+
+    public static class Library {
+        public String find(int id) {
+            if (id < 0) throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Work not found");
+            if (id == 0) throw new IllegalStateException("boom");
+            return "work " + id;
+        }
+    }
+}
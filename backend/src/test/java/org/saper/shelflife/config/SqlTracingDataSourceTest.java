@@ -0,0 +1,96 @@
+package org.saper.shelflife.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlTracingDataSourceTest {
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:sqltrace;DB_CLOSE_DELAY=-1");
+        dataSource = SqlTracingDataSource.wrap(pool);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table if not exists items (id int primary key, name varchar(20))");
+        jdbc.execute("delete from items");
+        jdbc.batchUpdate("insert into items values (?, ?)", List.of(
+                new Object[]{1, "a"}, new Object[]{2, "b"}, new Object[]{3, "c"}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SqlTrace.end();
+        pool.close();
+    }
+
+    @Test
+    void countsStatementsAndRowsOfTheCurrentRequest() {
+        SqlTrace trace = SqlTrace.begin();
+
+        jdbc.queryForList("select name from items order by id", String.class);
+        jdbc.queryForObject("select name from items where id = ?", String.class, 2);
+        jdbc.update("update items set name = ? where id = ?", "z", 3);
+
+        assertEquals(3, trace.statements());
+        assertEquals(4, trace.rows());
+        assertTrue(trace.jdbcNanos() > 0);
+    }
+
+    @Test
+    void ignoresWorkOutsideATrace() {
+        jdbc.queryForList("select name from items", String.class);
+
+        SqlTrace trace = SqlTrace.begin();
+        assertEquals(0, trace.statements());
+    }
+
+    @Test
+    void flagsASelectRepeatedPerRow() {
+        SqlTrace trace = SqlTrace.begin();
+
+        for (Integer id : jdbc.queryForList("select id from items", Integer.class)) {
+            jdbc.queryForObject("select name from items where id = ?", String.class, id);
+        }
+
+        Map.Entry<String, Integer> repeated = trace.mostRepeatedSelect(3);
+        assertNotNull(repeated);
+        assertEquals("select name from items where id = ?", repeated.getKey());
+        assertEquals(3, repeated.getValue());
+        assertNull(trace.mostRepeatedSelect(4));
+    }
+
+    @Test
+    void idAllocationIsNotAnNPlusOne() {
+        SqlTrace trace = SqlTrace.begin();
+
+        for (int i = 0; i < 5; i++) {
+            trace.statement("select tbl.next_val from id_generators tbl where tbl.gen_name=? for update", 1);
+        }
+
+        assertNull(trace.mostRepeatedSelect(2));
+    }
+
+    @Test
+    void keepsThePoolsInterfaces() throws IOException {
+        assertInstanceOf(Closeable.class, dataSource);
+        assertSame(pool, assertDoesNotThrow(() -> dataSource.unwrap(HikariDataSource.class)));
+
+        ((Closeable) dataSource).close();
+        assertTrue(pool.isClosed());
+    }
+}
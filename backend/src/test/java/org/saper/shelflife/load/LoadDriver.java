@@ -0,0 +1,207 @@
+package org.saper.shelflife.load;
+
+import org.saper.shelflife.load.SyntheticDataset.SeededUser;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop traffic generator: each worker sends one request, waits for the answer, and picks
+ * the next one from a weighted mix, for a random seeded user. Only requests that start after
+ * the warm-up are measured.
+ */
+final class LoadDriver {
+
+    /**
+     * One kind of request in the mix; weight is its relative share of traffic.
+     */
+    private record Operation(String endpoint, int weight, Set<Integer> expected) {
+    }
+
+    private static final List<Operation> MIX = List.of(
+            new Operation("works.list", 30, Set.of(200)),
+            new Operation("works.get", 10, Set.of(200)),
+            new Operation("sessions.list", 18, Set.of(200)),
+            new Operation("sessions.create", 10, Set.of(201)),
+            // Most works have no review, so 404 is a normal answer here
+            new Operation("review.get", 17, Set.of(200, 404)),
+            new Operation("review.put", 7, Set.of(200)),
+            new Operation("auth.login", 8, Set.of(200))
+    );
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String baseUrl;
+    private final List<SeededUser> users;
+    private final Map<Long, String> tokens;
+    private final AtomicLong sequence = new AtomicLong();
+
+    LoadDriver(String baseUrl, List<SeededUser> users, Map<Long, String> tokens) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.tokens = tokens;
+    }
+
+    LoadReport run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Worker worker = new Worker(new SplittableRandom(1_000 + i), measureFrom, end);
+                futures.add(workers.submit(() -> {
+                    worker.run();
+                    return worker;
+                }));
+            }
+
+            Map<String, LongList> latencies = new HashMap<>();
+            Map<String, Long> errors = new HashMap<>();
+            for (Operation op : MIX) {
+                latencies.put(op.endpoint(), new LongList());
+            }
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                worker.latencies.forEach((endpoint, values) -> latencies.get(endpoint).addAll(values));
+                worker.errors.forEach((endpoint, count) -> errors.merge(endpoint, count, Long::sum));
+            }
+
+            Map<String, long[]> arrays = new HashMap<>();
+            latencies.forEach((endpoint, values) -> arrays.put(endpoint, values.toArray()));
+            return LoadReport.of(duration.toNanos() / 1e9, arrays, errors);
+        }
+    }
+
+    private final class Worker {
+        private final SplittableRandom random;
+        private final long measureFrom;
+        private final long end;
+        private final Map<String, LongList> latencies = new HashMap<>();
+        private final Map<String, Long> errors = new HashMap<>();
+
+        Worker(SplittableRandom random, long measureFrom, long end) {
+            this.random = random;
+            this.measureFrom = measureFrom;
+            this.end = end;
+        }
+
+        void run() {
+            int totalWeight = MIX.stream().mapToInt(Operation::weight).sum();
+            while (true) {
+                long started = System.nanoTime();
+                if (started >= end) {
+                    return;
+                }
+                Operation op = pick(random.nextInt(totalWeight));
+                SeededUser user = users.get(random.nextInt(users.size()));
+
+                boolean ok;
+                try {
+                    HttpResponse<String> response = http.send(request(op, user), HttpResponse.BodyHandlers.ofString());
+                    ok = op.expected().contains(response.statusCode());
+                } catch (Exception ex) {
+                    ok = false;
+                }
+
+                if (started >= measureFrom) {
+                    if (ok) {
+                        latencies.computeIfAbsent(op.endpoint(), e -> new LongList()).add(System.nanoTime() - started);
+                    } else {
+                        errors.merge(op.endpoint(), 1L, Long::sum);
+                    }
+                }
+            }
+        }
+
+        private Operation pick(int roll) {
+            for (Operation op : MIX) {
+                roll -= op.weight();
+                if (roll < 0) {
+                    return op;
+                }
+            }
+            throw new IllegalStateException("weights don't add up");
+        }
+
+        private HttpRequest request(Operation op, SeededUser user) {
+            long workId = user.workIds()[random.nextInt(user.workIds().length)];
+            return switch (op.endpoint()) {
+                case "works.list" -> get(user, "/api/works");
+                case "works.get" -> get(user, "/api/works/" + workId);
+                case "sessions.list" -> get(user, "/api/sessions?limit=50");
+                case "sessions.create" -> send(user, "POST", "/api/sessions",
+                        "{\"workId\":" + workId + ",\"startedAt\":\"" + Instant.now() + "\",\"minutes\":"
+                                + (10 + random.nextInt(80)) + ",\"note\":\"load " + sequence.incrementAndGet() + "\"}");
+                case "review.get" -> get(user, "/api/works/" + workId + "/review");
+                case "review.put" -> send(user, "PUT", "/api/works/" + workId + "/review",
+                        "{\"workId\":" + workId + ",\"rating\":" + (1 + random.nextInt(5))
+                                + ",\"title\":\"Revisited\",\"body\":\"Better the second time.\",\"isPrivate\":false}");
+                case "auth.login" -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"usernameOrEmail\":\"" + user.username()
+                                + "\",\"password\":\"" + SyntheticDataset.PASSWORD + "\"}"))
+                        .build();
+                default -> throw new IllegalArgumentException(op.endpoint());
+            };
+        }
+
+        private HttpRequest get(SeededUser user, String path) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + tokens.get(user.id()))
+                    .GET()
+                    .build();
+        }
+
+        private HttpRequest send(SeededUser user, String method, String path, String body) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + tokens.get(user.id()))
+                    .header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+        }
+    }
+
+    /**
+     * Growable long array, so recording a latency doesn't box it.
+     */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LongList other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.saper.shelflife.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latency and throughput per endpoint for one measured run.
+ */
+final class LoadReport {
+
+    /**
+     * Results for one endpoint. Latencies are in milliseconds; errors are unexpected statuses or I/O failures.
+     */
+    record EndpointResult(String endpoint, long requests, long errors, double throughput,
+                          double p50, double p99, double max) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+
+    private final double seconds;
+    private final Map<String, EndpointResult> results;
+
+    private LoadReport(double seconds, Map<String, EndpointResult> results) {
+        this.seconds = seconds;
+        this.results = results;
+    }
+
+    /**
+     * @param latencies per endpoint, every successful request's latency in nanoseconds
+     * @param errors    per endpoint, the number of failed requests
+     */
+    static LoadReport of(double seconds, Map<String, long[]> latencies, Map<String, Long> errors) {
+        Map<String, EndpointResult> results = new TreeMap<>();
+        latencies.forEach((endpoint, nanos) -> {
+            long[] sorted = nanos.clone();
+            Arrays.sort(sorted);
+            long failed = errors.getOrDefault(endpoint, 0L);
+            results.put(endpoint, new EndpointResult(
+                    endpoint,
+                    sorted.length + failed,
+                    failed,
+                    sorted.length / seconds,
+                    millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.99)),
+                    millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])
+            ));
+        });
+        return new LoadReport(seconds, results);
+    }
+
+    List<EndpointResult> results() {
+        return new ArrayList<>(results.values());
+    }
+
+    EndpointResult result(String endpoint) {
+        return results.get(endpoint);
+    }
+
+    String toTable() {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "%-16s %9s %7s %10s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+        long requests = 0;
+        for (EndpointResult r : results.values()) {
+            table.append(String.format(Locale.ROOT, "%-16s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p99(), r.max()));
+            requests += r.requests();
+        }
+        table.append(String.format(Locale.ROOT, "%-16s %9d %7s %10.1f%n", "total", requests, "", requests / seconds));
+        return table.toString();
+    }
+
+    String toCsv() {
+        StringBuilder csv = new StringBuilder("endpoint,requests,errors,throughput,p50_ms,p99_ms,max_ms\n");
+        for (EndpointResult r : results.values()) {
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f%n",
+                    r.endpoint(), r.requests(), r.errors(), r.throughput(), r.p50(), r.p99(), r.max()));
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted array.
+     */
+    static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,145 @@
+package org.saper.shelflife.load;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.saper.shelflife.config.IdGeneratorSeeder;
+import org.saper.shelflife.dto.LoginRequestDto;
+import org.saper.shelflife.load.SyntheticDataset.SeededUser;
+import org.saper.shelflife.service.AuthService;
+import org.saper.shelflife.service.PasswordHasher;
+import org.saper.shelflife.service.StatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mixed-traffic load test against the full app on in-memory H2, used as a latency regression gate.
+ * <p>
+ * Seeds a synthetic dataset, logs every user in, then drives works, sessions, review and login
+ * requests from concurrent clients and compares each endpoint's p99 with its budget in
+ * load-test.properties. Any setting there can be overridden with -D. Tagged "load" so it only
+ * runs with the load-test profile; the report also goes to target/load-test/.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LoadTest {
+
+    private static final Path REPORT_DIR = Path.of("target", "load-test");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private IdGeneratorSeeder idGeneratorSeeder;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final Properties settings = new Properties();
+    private SyntheticDataset dataset;
+    private final Map<Long, String> tokens = new HashMap<>();
+
+    @BeforeAll
+    void seed() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/load-test.properties")) {
+            settings.load(in);
+        }
+
+        long started = System.nanoTime();
+        dataset = SyntheticDataset.seed(
+                jdbcTemplate,
+                passwordHasher.encode(SyntheticDataset.PASSWORD),
+                intSetting("load.users"),
+                intSetting("load.seed")
+        );
+        // Move the id generators past the seeded rows
+        idGeneratorSeeder.afterPropertiesSet();
+        // Established users already have stats rollups; measure the steady state, not the one-off backfill
+        for (SeededUser user : dataset.users()) {
+            transactionTemplate.executeWithoutResult(status -> statsService.rebuild(user.id()));
+        }
+        System.out.printf(Locale.ROOT, "Seeded %s in %d ms%n", dataset, (System.nanoTime() - started) / 1_000_000);
+
+        for (SeededUser user : dataset.users()) {
+            tokens.put(user.id(), authService.login(new LoginRequestDto(user.username(), SyntheticDataset.PASSWORD)).token());
+        }
+    }
+
+    @Test
+    void mixedTrafficStaysWithinBudget() throws Exception {
+        LoadDriver driver = new LoadDriver("http://localhost:" + port, dataset.users(), tokens);
+        LoadReport report = driver.run(
+                intSetting("load.concurrency"),
+                Duration.parse(setting("load.warmup")),
+                Duration.parse(setting("load.duration"))
+        );
+
+        String table = report.toTable();
+        System.out.println(table);
+        Files.createDirectories(REPORT_DIR);
+        Files.writeString(REPORT_DIR.resolve("report.txt"), dataset + "\n\n" + table);
+        Files.writeString(REPORT_DIR.resolve("report.csv"), report.toCsv());
+
+        double maxErrorRate = Double.parseDouble(setting("load.max-error-rate"));
+        List<String> failures = new ArrayList<>();
+        for (LoadReport.EndpointResult result : report.results()) {
+            String budget = setting("load.p99-ms." + result.endpoint());
+            if (result.requests() == 0) {
+                failures.add(result.endpoint() + ": no requests completed");
+            }
+            if (result.errorRate() > maxErrorRate) {
+                failures.add(String.format(Locale.ROOT, "%s: error rate %.4f > %s", result.endpoint(), result.errorRate(), maxErrorRate));
+            }
+            if (budget != null && !budget.isBlank() && result.p99() > Double.parseDouble(budget)) {
+                failures.add(String.format(Locale.ROOT, "%s: p99 %.2f ms > budget %s ms", result.endpoint(), result.p99(), budget));
+            }
+        }
+        assertTrue(failures.isEmpty(), () -> String.join("\n", failures) + "\n\n" + table);
+    }
+
+    // ---------- Internal helpers ----------
+
+    /**
+     * A -D system property if set, otherwise the value from load-test.properties.
+     */
+    private String setting(String name) {
+        return System.getProperty(name, settings.getProperty(name));
+    }
+
+    private int intSetting(String name) {
+        return Integer.parseInt(setting(name));
+    }
+}
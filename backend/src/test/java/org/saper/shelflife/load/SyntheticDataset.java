@@ -0,0 +1,202 @@
+package org.saper.shelflife.load;
+
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible library for N users, written straight to the tables with JDBC batches.
+ * <p>
+ * Shapes follow what real libraries look like rather than uniform noise: library sizes are
+ * log-normal (most users have a few dozen works, a few have over a thousand), finished and
+ * in-progress works carry sessions (books many, movies one or two), about half of finished
+ * works are reviewed, and a small set of popular creators accounts for most works.
+ * Callers must re-run IdGeneratorSeeder afterwards so new rows get fresh ids.
+ */
+final class SyntheticDataset {
+
+    static final String PASSWORD = "load-test-password";
+
+    private static final int BATCH = 1_000;
+    private static final int CREATORS = 3_000;
+    private static final Instant NOW = Instant.parse("2025-06-01T00:00:00Z");
+
+    private static final String[] WORDS = {
+            "the", "night", "circus", "left", "hand", "darkness", "house", "leaves", "station", "eleven",
+            "wizard", "earthsea", "kindred", "solaris", "piranesi", "jade", "city", "fifth", "season",
+            "name", "wind", "blood", "meridian", "remains", "day", "song", "achilles", "sea", "tranquility"
+    };
+    private static final String[] GENRES = {"Fantasy", "Science fiction", "Literary", "Mystery", "History", "Horror"};
+
+    /**
+     * A seeded user and the ids of their works, for picking realistic request targets.
+     */
+    record SeededUser(long id, String username, long[] workIds) {
+    }
+
+    private final List<SeededUser> users;
+    private final long works;
+    private final long sessions;
+    private final long reviews;
+
+    private SyntheticDataset(List<SeededUser> users, long works, long sessions, long reviews) {
+        this.users = users;
+        this.works = works;
+        this.sessions = sessions;
+        this.reviews = reviews;
+    }
+
+    static SyntheticDataset seed(JdbcTemplate jdbc, String passwordHash, int userCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Timestamp created = Timestamp.from(NOW.minus(Duration.ofDays(800)));
+
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> workRows = new ArrayList<>();
+        List<Object[]> sessionRows = new ArrayList<>();
+        List<Object[]> reviewRows = new ArrayList<>();
+        List<SeededUser> users = new ArrayList<>(userCount);
+        long workId = 0;
+        long sessionId = 0;
+        long reviewId = 0;
+        long works = 0;
+        long sessions = 0;
+        long reviews = 0;
+
+        for (long userId = 1; userId <= userCount; userId++) {
+            String username = "load" + userId;
+            userRows.add(new Object[]{userId, username, username + "@example.com", passwordHash, "Load user " + userId, created, created});
+
+            int librarySize = (int) Math.min(1_500, Math.max(1, logNormal(random, 60, 0.8)));
+            long[] workIds = new long[librarySize];
+            for (int w = 0; w < librarySize; w++) {
+                workIds[w] = ++workId;
+                WorkType type = pickType(random);
+                WorkStatus status = pickStatus(random);
+                Instant added = NOW.minus(Duration.ofMinutes(random.nextLong(Duration.ofDays(700).toMinutes())));
+                Date startedAt = status != WorkStatus.TO_EXPLORE ? Date.valueOf(added.atZone(ZoneOffset.UTC).toLocalDate()) : null;
+                Date finishedAt = status == WorkStatus.FINISHED ? Date.valueOf(added.plus(Duration.ofDays(20)).atZone(ZoneOffset.UTC).toLocalDate()) : null;
+                workRows.add(new Object[]{
+                        workId, userId, title(random), type.name(),
+                        "Creator " + (int) (CREATORS * Math.pow(random.nextDouble(), 3)),
+                        random.nextInt(3) == 0 ? null : GENRES[random.nextInt(GENRES.length)],
+                        status.name(), type == WorkType.BOOK ? 100 + random.nextInt(600) : null,
+                        startedAt, finishedAt, Timestamp.from(added), Timestamp.from(added)
+                });
+                works++;
+
+                if (status != WorkStatus.TO_EXPLORE) {
+                    int sessionCount = type == WorkType.BOOK || type == WorkType.GAME
+                            ? (int) Math.min(400, Math.max(1, logNormal(random, 8, 0.9)))
+                            : 1 + random.nextInt(2);
+                    for (int s = 0; s < sessionCount; s++) {
+                        Instant startedAtTime = added.plus(Duration.ofHours(s * 20L + random.nextInt(12)));
+                        int minutes = 15 + random.nextInt(105);
+                        sessionRows.add(new Object[]{
+                                ++sessionId, userId, workId, Timestamp.from(startedAtTime),
+                                Timestamp.from(startedAtTime.plus(Duration.ofMinutes(minutes))), minutes,
+                                type == WorkType.BOOK ? 5 + random.nextInt(40) : null,
+                                random.nextInt(5) == 0 ? "Picked up where I left off" : null,
+                                Timestamp.from(startedAtTime), Timestamp.from(startedAtTime)
+                        });
+                        sessions++;
+                    }
+                }
+
+                if (status == WorkStatus.FINISHED && random.nextBoolean()) {
+                    reviewRows.add(new Object[]{
+                            ++reviewId, userId, workId, 1 + random.nextInt(5), title(random),
+                            body(random), random.nextInt(10) == 0, Timestamp.from(added), Timestamp.from(added)
+                    });
+                    reviews++;
+                }
+
+                if (sessionRows.size() >= BATCH * 10) {
+                    flush(jdbc, userRows, workRows, sessionRows, reviewRows);
+                }
+            }
+            users.add(new SeededUser(userId, username, workIds));
+        }
+        flush(jdbc, userRows, workRows, sessionRows, reviewRows);
+
+        return new SyntheticDataset(List.copyOf(users), works, sessions, reviews);
+    }
+
+    List<SeededUser> users() {
+        return users;
+    }
+
+    @Override
+    public String toString() {
+        return users.size() + " users, " + works + " works, " + sessions + " sessions, " + reviews + " reviews";
+    }
+
+    // ---------- Internal helpers ----------
+
+    /**
+     * Writes the pending rows parents first, so foreign keys always resolve.
+     */
+    private static void flush(JdbcTemplate jdbc,
+                              List<Object[]> users,
+                              List<Object[]> works,
+                              List<Object[]> sessions,
+                              List<Object[]> reviews) {
+        insert(jdbc, "insert into users (user_id, username, email, password_hash, display_name, created_at, updated_at)"
+                + " values (?, ?, ?, ?, ?, ?, ?)", users);
+        insert(jdbc, "insert into works (work_id, user_id, title, type, creator, genre, status, total_units,"
+                + " started_at, finished_at, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", works);
+        insert(jdbc, "insert into sessions (session_id, user_id, work_id, started_at, ended_at, minutes, units_completed,"
+                + " note, created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", sessions);
+        insert(jdbc, "insert into reviews (review_id, user_id, work_id, rating, title, body, is_private, created_at,"
+                + " updated_at) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", reviews);
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH) {
+            jdbc.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH)));
+        }
+        rows.clear();
+    }
+
+    private static double logNormal(SplittableRandom random, double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+
+    private static WorkType pickType(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 70) return WorkType.BOOK;
+        if (roll < 90) return WorkType.MOVIE;
+        if (roll < 97) return WorkType.GAME;
+        return WorkType.OTHER;
+    }
+
+    private static WorkStatus pickStatus(SplittableRandom random) {
+        int roll = random.nextInt(100);
+        if (roll < 25) return WorkStatus.TO_EXPLORE;
+        if (roll < 40) return WorkStatus.IN_PROGRESS;
+        return WorkStatus.FINISHED;
+    }
+
+    private static String title(SplittableRandom random) {
+        String first = WORDS[random.nextInt(WORDS.length)];
+        return Character.toUpperCase(first.charAt(0)) + first.substring(1) + " " + WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String body(SplittableRandom random) {
+        int words = (int) Math.min(2_000, Math.max(5, logNormal(random, 70, 0.9)));
+        StringBuilder body = new StringBuilder(words * 7);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) body.append(' ');
+            body.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return body.toString();
+    }
+}
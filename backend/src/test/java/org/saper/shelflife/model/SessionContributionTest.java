@@ -0,0 +1,28 @@
+package org.saper.shelflife.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionContributionTest {
+
+    @Test
+    void dayIsBucketedInUtc() {
+        SessionContribution c = new SessionContribution(
+                1L, 2L, Instant.parse("2025-01-02T23:30:00Z"), 30, null
+        );
+
+        assertEquals(LocalDate.of(2025, 1, 2), c.day());
+    }
+
+    @Test
+    void missingMinutesAndUnitsCountAsZero() {
+        SessionContribution c = new SessionContribution(1L, 2L, Instant.now(), null, null);
+
+        assertEquals(0, c.minutesOrZero());
+        assertEquals(0, c.unitsOrZero());
+    }
+}
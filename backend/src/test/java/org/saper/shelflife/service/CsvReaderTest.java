@@ -0,0 +1,53 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+
+    @Test
+    void readsQuotedFieldsWithEscapedQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = reader("\uFEFFTitle,Review\r\n\"Dune, Part One\",\"Said \"\"wow\"\"\nthen slept\"\r\n\nLast,\n");
+
+        assertEquals(List.of("Title", "Review"), csv.next());
+        assertEquals(List.of("Dune, Part One", "Said \"wow\"\nthen slept"), csv.next());
+        assertEquals(2, csv.recordLine());
+        assertEquals(List.of("Last", ""), csv.next());
+        assertEquals(5, csv.recordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void lastRecordWithoutTrailingNewlineIsRead() throws IOException {
+        CsvReader csv = reader("a,b\n1,2");
+
+        csv.next();
+        assertEquals(List.of("1", "2"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void unterminatedQuoteFailsWithLineNumber() throws IOException {
+        CsvReader csv = reader("a\n\"oops\n");
+
+        csv.next();
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, csv::next);
+        assertTrue(ex.getMessage().startsWith("line 2:"));
+    }
+
+    @Test
+    void oversizedRecordIsRejected() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("x".repeat(100)), 50);
+
+        assertThrows(IllegalArgumentException.class, csv::next);
+    }
+
+    private static CsvReader reader(String content) {
+        return new CsvReader(new StringReader(content), 10_000);
+    }
+}
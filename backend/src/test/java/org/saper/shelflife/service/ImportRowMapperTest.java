@@ -0,0 +1,85 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.model.ImportFormat;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportRowMapperTest {
+
+    private static final List<String> GOODREADS_HEADER = List.of(
+            "Book Id", "Title", "Author", "My Rating", "Number of Pages", "Date Read", "Exclusive Shelf", "My Review");
+
+    private static final List<String> LETTERBOXD_HEADER = List.of(
+            "Date", "Name", "Year", "Letterboxd URI", "Rating", "Rewatch", "Tags", "Watched Date");
+
+    @Test
+    void detectsFormatFromHeader() {
+        assertEquals(ImportFormat.GOODREADS, ImportRowMapper.detect(GOODREADS_HEADER));
+        assertEquals(ImportFormat.LETTERBOXD, ImportRowMapper.detect(LETTERBOXD_HEADER));
+        assertEquals(ImportFormat.CSV, ImportRowMapper.detect(List.of("title", "type")));
+    }
+
+    @Test
+    void mapsGoodreadsShelfRatingAndReview() {
+        ImportRowMapper mapper = new ImportRowMapper(ImportFormat.GOODREADS, GOODREADS_HEADER, null);
+
+        ImportRowMapper.ImportRow row = mapper.map(List.of(
+                "1", "Dune", "Frank Herbert", "5", "604", "2024/11/20", "read", "Loved it<br/>Spice!"));
+
+        assertEquals("Dune", row.work().title());
+        assertEquals(WorkType.BOOK, row.work().type());
+        assertEquals(WorkStatus.FINISHED, row.work().status());
+        assertEquals(604, row.work().totalUnits());
+        assertEquals(LocalDate.of(2024, 11, 20), row.work().finishedAt());
+        assertEquals(5, row.rating());
+        assertEquals("Loved it\nSpice!", row.reviewBody());
+    }
+
+    @Test
+    void goodreadsUnratedToReadHasNoReview() {
+        ImportRowMapper mapper = new ImportRowMapper(ImportFormat.GOODREADS, GOODREADS_HEADER, null);
+
+        ImportRowMapper.ImportRow row = mapper.map(List.of("2", "Emma", "Jane Austen", "0", "", "", "to-read", ""));
+
+        assertEquals(WorkStatus.TO_EXPLORE, row.work().status());
+        assertNull(row.work().totalUnits());
+        assertNull(row.rating());
+    }
+
+    @Test
+    void letterboxdHalfStarsRoundUpAndStatusCanBeOverridden() {
+        ImportRowMapper watched = new ImportRowMapper(ImportFormat.LETTERBOXD, LETTERBOXD_HEADER, null);
+        ImportRowMapper.ImportRow row = watched.map(List.of(
+                "2024-03-02", "Arrival", "2016", "https://boxd.it/x", "3.5", "", "", "2024-03-01"));
+
+        assertEquals(WorkType.MOVIE, row.work().type());
+        assertEquals(WorkStatus.FINISHED, row.work().status());
+        assertEquals(LocalDate.of(2024, 3, 1), row.work().finishedAt());
+        assertEquals(4, row.rating());
+
+        ImportRowMapper watchlist = new ImportRowMapper(ImportFormat.LETTERBOXD, LETTERBOXD_HEADER, WorkStatus.TO_EXPLORE);
+        assertNull(watchlist.map(List.of("2024-03-02", "Arrival", "2016", "https://boxd.it/x", "", "", "", "")).work().finishedAt());
+    }
+
+    @Test
+    void plainCsvReportsBadValues() {
+        ImportRowMapper mapper = new ImportRowMapper(ImportFormat.CSV, List.of("Title", "Type", "Total_Units"), null);
+
+        assertEquals(WorkType.MOVIE, mapper.map(List.of("Heat", "movie", "")).work().type());
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> mapper.map(List.of("Heat", "podcast", "")));
+        assertEquals("type: unknown value 'podcast'", ex.getMessage());
+    }
+
+    @Test
+    void missingTitleColumnIsRejectedUpFront() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ImportRowMapper(ImportFormat.CSV, List.of("name", "type"), null));
+    }
+}
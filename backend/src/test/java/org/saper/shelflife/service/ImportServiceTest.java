@@ -0,0 +1,138 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.dto.ImportJobDto;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.model.ImportFormat;
+import org.saper.shelflife.model.ImportJob;
+import org.saper.shelflife.model.ImportStatus;
+import org.saper.shelflife.repository.ImportJobRepository;
+import org.saper.shelflife.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ImportServiceTest {
+
+    @Autowired
+    private ImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ImportJobRepository importJobRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rowWithAnInvalidReviewIsRejectedAlone() throws InterruptedException {
+        Long userId = register("importer");
+        String csv = """
+                title,creator,rating,review title
+                Dune,Frank Herbert,5,Great
+                Emma,Jane Austen,4,%s
+                Middlemarch,George Eliot,,
+                """.formatted("x".repeat(300));
+
+        ImportJobDto job = runImport(userId, csv);
+
+        assertEquals(ImportStatus.COMPLETED, job.status());
+        assertEquals(3, job.rowsRead());
+        assertEquals(2, job.worksCreated());
+        assertEquals(1, job.reviewsCreated());
+        assertEquals(1, job.rejected());
+        assertEquals(List.of("line 3: review title: size must be between 0 and 255"), job.errors());
+    }
+
+    @Test
+    void heartbeatFailsOnlyJobsOfDeadInstances() {
+        Long userId = register("multinode");
+        Long orphaned = savedJob(userId, Instant.now().minus(Duration.ofMinutes(10)));
+        Long liveElsewhere = savedJob(userId, Instant.now());
+
+        importService.beat();
+
+        ImportJob failed = importJobRepository.findById(orphaned).orElseThrow();
+        assertEquals(ImportStatus.FAILED, failed.getStatus());
+        assertNotNull(failed.getFinishedAt());
+        assertEquals(ImportStatus.RUNNING, importJobRepository.findById(liveElsewhere).orElseThrow().getStatus());
+    }
+
+    @Test
+    void startsForOneUserWaitForEachOther() throws Exception {
+        Long userId = register("uploader");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            // Stands in for another upload between its check and its insert
+            Future<?> other = threads.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                userRepository.lockById(userId);
+                locked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            locked.await();
+
+            Future<ImportJobDto> start = threads.submit(() ->
+                    importService.startImport(userId, file("title\nDune\n"), ImportFormat.CSV, null));
+            assertThrows(TimeoutException.class, () -> start.get(300, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            other.get();
+            assertNotNull(start.get(10, TimeUnit.SECONDS).id());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    private Long savedJob(Long userId, Instant heartbeatAt) {
+        ImportJob job = ImportJob.create(userRepository.getReferenceById(userId), ImportFormat.CSV, "library.csv");
+        job.setStatus(ImportStatus.RUNNING);
+        job.setHeartbeatAt(heartbeatAt);
+        return importJobRepository.save(job).getId();
+    }
+
+    private Long register(String username) {
+        return userService.registerUser(new UserRegistrationDto(username, username + "@example.com", "password1", null)).id();
+    }
+
+    private ImportJobDto runImport(Long userId, String csv) throws InterruptedException {
+        ImportJobDto job = importService.startImport(userId, file(csv), ImportFormat.CSV, null);
+        for (int i = 0; i < 100 && job.finishedAt() == null; i++) {
+            Thread.sleep(100);
+            job = importService.getJob(userId, job.id());
+        }
+        assertNotNull(job.finishedAt(), "import did not finish");
+        return job;
+    }
+
+    private static MockMultipartFile file(String csv) {
+        return new MockMultipartFile("file", "library.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
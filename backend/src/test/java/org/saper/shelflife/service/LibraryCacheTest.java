@@ -0,0 +1,126 @@
+package org.saper.shelflife.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LibraryCacheTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LibraryCache cache = new LibraryCache(registry, 1_000, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsOncePerUserAndRecordsHits() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "library").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void invalidateWithoutTransactionDropsEntryImmediately() {
+        cache.get(1L, this::load);
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void everyLoadGetsANewVersion() {
+        cache.get(1L, this::load);
+        long first = cache.getLibraryIfPresent(1L).version();
+        cache.get(1L, this::load);
+        assertEquals(first, cache.getLibraryIfPresent(1L).version());
+
+        cache.invalidate(1L);
+        assertNull(cache.getLibraryIfPresent(1L));
+        cache.get(1L, this::load);
+        assertNotEquals(first, cache.getLibraryIfPresent(1L).version());
+    }
+
+    @Test
+    void invalidateInsideTransactionWaitsForCommit() {
+        cache.get(1L, this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidate(1L);
+
+        cache.get(1L, this::load);
+        assertEquals(1, loads.get(), "entry must survive until commit");
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneLoadWithoutBlockingOtherUsers() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<List<WorkSummaryDto>> first = CompletableFuture.supplyAsync(() -> cache.get(1L, id -> {
+            loading.countDown();
+            await(release);
+            return load(id);
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // The slow load runs outside the map, so other keys are served meanwhile
+        cache.get(2L, this::load);
+        CompletableFuture<List<WorkSummaryDto>> second = CompletableFuture.supplyAsync(() -> cache.get(1L, this::load));
+        assertNull(cache.getIfPresent(1L));
+
+        release.countDown();
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        assertThrows(IllegalStateException.class, () -> cache.get(1L, id -> {
+            throw new IllegalStateException("db down");
+        }));
+
+        assertNull(cache.getIfPresent(1L));
+        cache.get(1L, this::load);
+        assertEquals(1, loads.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<WorkSummaryDto> load(Long userId) {
+        loads.incrementAndGet();
+        return List.of(new WorkSummaryDto(userId, "Dune", "Frank Herbert", WorkType.BOOK, null, WorkStatus.TO_EXPLORE));
+    }
+}
@@ -0,0 +1,99 @@
+package org.saper.shelflife.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void rehashWhenCostDiffersInEitherDirection() {
+        hasher = hasher(new BCryptPasswordEncoder(4), 5, 1, 1);
+
+        assertTrue(hasher.needsRehash(new BCryptPasswordEncoder(4).encode("password1")));
+        assertFalse(hasher.needsRehash("$2a$05$abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ"));
+        assertTrue(hasher.needsRehash("$2a$06$abcdefghijklmnopqrstuvwxyz0123456789ABCDEFGHIJKLMNOPQ"));
+        assertTrue(hasher.needsRehash("not-a-bcrypt-hash"));
+    }
+
+    @Test
+    void encodeAndMatchRunOnThePool() {
+        hasher = hasher(new BCryptPasswordEncoder(4), 4, 1, 1);
+
+        String hash = hasher.encode("password1");
+        assertTrue(hasher.matches("password1", hash));
+        assertFalse(hasher.matches("wrong", hash));
+    }
+
+    @Test
+    void saturatedPoolRejectsWithRetryAfter() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = hasher(new BlockingEncoder(started, release), 10, 1, 1);
+
+        callers.submit(() -> hasher.encode("a")); // occupies the single worker
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> hasher.encode("b")); // fills the one queue slot
+        waitForQueued(1);
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class, () -> hasher.encode("c"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertEquals("2", ex.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        release.countDown();
+    }
+
+    private PasswordHasher hasher(PasswordEncoder encoder, int strength, int threads, int queue) {
+        return new PasswordHasher(encoder, registry, strength, threads, queue, 2);
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("executor.queued").gauge().value() < expected) {
+            assertTrue(System.nanoTime() < deadline, "queue never reached " + expected);
+            Thread.sleep(10);
+        }
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
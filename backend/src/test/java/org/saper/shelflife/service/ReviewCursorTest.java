@@ -0,0 +1,26 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        ReviewCursor cursor = new ReviewCursor(Instant.parse("2024-11-20T19:00:00.123456Z"), 4_200_000_017L);
+
+        assertEquals(cursor, ReviewCursor.decode(cursor.encode()));
+        assertNull(ReviewCursor.decode(" "));
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        assertThrows(ResponseStatusException.class, () -> ReviewCursor.decode("%%%"));
+        assertThrows(ResponseStatusException.class, () -> ReviewCursor.decode("YWJj")); // "abc"
+        assertThrows(ResponseStatusException.class, () -> ReviewCursor.decode("NDI")); // "42", the old id-only form
+    }
+}
@@ -0,0 +1,75 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.dto.CursorPageDto;
+import org.saper.shelflife.dto.ReviewCreateUpdateDto;
+import org.saper.shelflife.dto.ReviewSummaryDto;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class ReviewServiceTest {
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private WorkService workService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void pagesAreNewestFirstByCreationNotById() {
+        Long userId = userService.registerUser(new UserRegistrationDto("reviewer", "reviewer@example.com", "password1", null)).id();
+        Long oldest = review(userId, "Emma");
+        Long newest = review(userId, "Dune");
+        Long tiedLow = review(userId, "Middlemarch");
+        Long tiedHigh = review(userId, "Persuasion");
+
+        // Pooled ids from several instances don't follow creation order
+        createdAt(oldest, "2024-01-01T00:00:00Z");
+        createdAt(newest, "2024-03-01T00:00:00Z");
+        createdAt(tiedLow, "2024-02-01T00:00:00Z");
+        createdAt(tiedHigh, "2024-02-01T00:00:00Z");
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPageDto<ReviewSummaryDto> page = reviewService.getReviewPage(userId, 1, cursor, 0);
+            page.items().forEach(r -> ids.add(r.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        List<Long> expected = List.of(newest, tiedHigh, tiedLow, oldest);
+        assertEquals(expected, ids);
+        assertEquals(expected, reviewService.getReviewsForUser(userId, 0).stream().map(ReviewSummaryDto::id).toList());
+    }
+
+    private Long review(Long userId, String title) {
+        Long workId = workService.createWork(userId, new WorkCreateUpdateDto(
+                title, WorkType.BOOK, null, null, WorkStatus.FINISHED, null, null, null, null)).id();
+        return reviewService.upsertReview(userId, new ReviewCreateUpdateDto(workId, 4, null, null, false)).id();
+    }
+
+    private void createdAt(Long reviewId, String instant) {
+        jdbcTemplate.update("update reviews set created_at = ? where review_id = ?", Timestamp.from(Instant.parse(instant)), reviewId);
+    }
+}
@@ -0,0 +1,24 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsExactScore() {
+        SearchCursor cursor = new SearchCursor(new BigDecimal("3.141593"), 42L);
+
+        assertEquals(cursor, SearchCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        assertThrows(ResponseStatusException.class, () -> SearchCursor.decode("%%%"));
+        assertThrows(ResponseStatusException.class, () -> SearchCursor.decode("NDI6YWJj")); // "42:abc"
+    }
+}
@@ -0,0 +1,33 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryTest {
+
+    @Test
+    void wordsBecomeRequiredPrefixTerms() {
+        assertEquals("+dune* +messiah*", SearchQuery.parse("  Dune   Messiah ").booleanExpression());
+    }
+
+    @Test
+    void booleanOperatorsInInputAreDropped() {
+        assertEquals("+brien* +sci* +fi*", SearchQuery.parse("O'Brien -sci-fi* \"+(@>").booleanExpression());
+        assertEquals("+x*", SearchQuery.parse("x").booleanExpression());
+    }
+
+    @Test
+    void repeatedWordsAreCollapsedAndTermsCapped() {
+        assertEquals("+a1* +b2* +c3* +d4* +e5* +f6* +g7* +h8*",
+                SearchQuery.parse("a1 a1 b2 c3 d4 e5 f6 g7 h8 i9 j10").booleanExpression());
+    }
+
+    @Test
+    void queriesWithoutWordsAreRejected() {
+        assertThrows(ResponseStatusException.class, () -> SearchQuery.parse(" "));
+        assertThrows(ResponseStatusException.class, () -> SearchQuery.parse("*** --"));
+        assertThrows(ResponseStatusException.class, () -> SearchQuery.parse("a".repeat(SearchQuery.MAX_LENGTH + 1)));
+    }
+}
@@ -0,0 +1,24 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsSubMillisecondPrecision() {
+        SessionCursor cursor = new SessionCursor(Instant.parse("2024-11-20T19:00:00.123456Z"), 10L);
+
+        assertEquals(cursor, SessionCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        assertThrows(ResponseStatusException.class, () -> SessionCursor.decode("%%%"));
+        assertThrows(ResponseStatusException.class, () -> SessionCursor.decode("MTA6bm90LWEtZGF0ZQ")); // "10:not-a-date"
+    }
+}
@@ -0,0 +1,93 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.dto.SessionBatchItemDto;
+import org.saper.shelflife.dto.SessionBatchItemResultDto;
+import org.saper.shelflife.dto.SessionBatchItemResultDto.Status;
+import org.saper.shelflife.dto.SessionBatchResultDto;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+class SessionServiceTest {
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private WorkService workService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void batchReportsEveryItemInInputOrder() {
+        Long userId = userService.registerUser(new UserRegistrationDto("syncing", "syncing@example.com", "password1", null)).id();
+        Long otherId = userService.registerUser(new UserRegistrationDto("bystander", "bystander@example.com", "password1", null)).id();
+        Long dune = work(userId, "Dune");
+        Long foreign = work(otherId, "Emma");
+
+        SessionBatchResultDto first = sessionService.createSessionBatch(userId, List.of(
+                item("a", dune, 10),
+                item("b", dune, 20)
+        ));
+        assertEquals(List.of(Status.CREATED, Status.CREATED), statuses(first));
+        Long recordedA = first.results().getFirst().session().id();
+
+        SessionBatchResultDto second = sessionService.createSessionBatch(userId, List.of(
+                item("a", dune, 99),
+                item("c", dune, 30),
+                item("c", dune, 31),
+                item("d", foreign, 10),
+                item("e", Long.MAX_VALUE, 10),
+                item("f", dune, 0),
+                item(null, dune, 40)
+        ));
+
+        assertEquals(List.of(Status.DUPLICATE, Status.CREATED, Status.DUPLICATE,
+                Status.REJECTED, Status.REJECTED, Status.REJECTED, Status.CREATED), statuses(second));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6), second.results().stream().map(SessionBatchItemResultDto::index).toList());
+        assertEquals(List.of("a", "c", "c", "d", "e", "f"),
+                second.results().stream().limit(6).map(SessionBatchItemResultDto::idempotencyKey).toList());
+        assertEquals(2, second.created());
+        assertEquals(2, second.duplicates());
+        assertEquals(3, second.rejected());
+
+        // Across requests: the row recorded the first time, not the retried values
+        assertEquals(recordedA, second.results().get(0).session().id());
+        assertEquals(10, second.results().get(0).session().minutes());
+        // Within one batch: one row, reported for both copies
+        assertEquals(second.results().get(1).session().id(), second.results().get(2).session().id());
+        assertEquals(30, second.results().get(2).session().minutes());
+
+        assertEquals("Work not found for user", second.results().get(3).error());
+        assertEquals("Work not found for user", second.results().get(4).error());
+        assertTrue(second.results().get(5).error().startsWith("minutes: "), second.results().get(5).error());
+
+        assertEquals(4, sessionService.getSessionsForUser(userId).size());
+    }
+
+    private Long work(Long userId, String title) {
+        return workService.createWork(userId, new WorkCreateUpdateDto(
+                title, WorkType.BOOK, null, null, WorkStatus.IN_PROGRESS, null, null, null, null)).id();
+    }
+
+    private static SessionBatchItemDto item(String key, Long workId, int minutes) {
+        return new SessionBatchItemDto(key, workId, Instant.parse("2024-11-20T19:00:00Z"), null, minutes, 1, null);
+    }
+
+    private static List<Status> statuses(SessionBatchResultDto result) {
+        return result.results().stream().map(SessionBatchItemResultDto::status).toList();
+    }
+}
@@ -0,0 +1,146 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.config.H2StreamingSupport;
+import org.saper.shelflife.dto.ActivityBucketDto;
+import org.saper.shelflife.dto.DailyStatsDto;
+import org.saper.shelflife.dto.SessionCreateUpdateDto;
+import org.saper.shelflife.dto.StatsSummaryDto;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.dto.WorkStatsDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("h2")
+@Import(H2StreamingSupport.class)
+class StatsServiceTest {
+
+    private static final int WRITERS = 8;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private WorkService workService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rebuildSumsSessionsPerDayAndWork() {
+        Long userId = userService.registerUser(new UserRegistrationDto("rebuilt", "rebuilt@example.com", "password1", null)).id();
+        Long dune = work(userId, "Dune");
+        Long emma = work(userId, "Emma");
+        session(userId, dune, "2024-11-20T08:00:00Z", 10);
+        session(userId, dune, "2024-11-20T23:59:59Z", 20);
+        session(userId, emma, "2024-11-21T00:00:00Z", 5);
+
+        transactionTemplate.executeWithoutResult(status -> statsService.rebuild(userId));
+
+        assertEquals(new StatsSummaryDto(35, 3, 3), statsService.getSummary(userId));
+        assertEquals(List.of(
+                new DailyStatsDto(LocalDate.parse("2024-11-20"), 30, 2, 2),
+                new DailyStatsDto(LocalDate.parse("2024-11-21"), 5, 1, 1)
+        ), statsService.getDailyStats(userId, LocalDate.parse("2024-11-19"), LocalDate.parse("2024-11-22")));
+        assertEquals(List.of(
+                new WorkStatsDto(dune, "Dune", 30, 2, 2),
+                new WorkStatsDto(emma, "Emma", 5, 1, 1)
+        ), statsService.getTopWorks(userId, 10));
+    }
+
+    @Test
+    void activityBucketsByDayMondayWeekAndMonthWithinTheRange() {
+        Long userId = userService.registerUser(new UserRegistrationDto("bucketed", "bucketed@example.com", "password1", null)).id();
+        Long dune = work(userId, "Dune");
+        session(userId, dune, "2024-11-17T23:59:59Z", 1);   // Sunday before the range
+        session(userId, dune, "2024-11-18T00:00:00Z", 2);   // Monday, first instant of the range
+        session(userId, dune, "2024-11-24T23:59:59Z", 4);   // Sunday, same week
+        session(userId, dune, "2024-11-25T00:00:00Z", 8);   // next Monday
+        session(userId, dune, "2024-12-01T23:59:59Z", 16);  // Sunday, last day of the range
+        session(userId, dune, "2024-12-02T00:00:00Z", 32);  // first instant after the range
+
+        assertEquals(List.of(
+                new ActivityBucketDto(LocalDate.parse("2024-11-18"), WorkType.BOOK, 2, 1, 1),
+                new ActivityBucketDto(LocalDate.parse("2024-11-24"), WorkType.BOOK, 4, 1, 1),
+                new ActivityBucketDto(LocalDate.parse("2024-11-25"), WorkType.BOOK, 8, 1, 1),
+                new ActivityBucketDto(LocalDate.parse("2024-12-01"), WorkType.BOOK, 16, 1, 1)
+        ), activity(userId, ActivityGranularity.DAY));
+        assertEquals(List.of(
+                new ActivityBucketDto(LocalDate.parse("2024-11-18"), WorkType.BOOK, 6, 2, 2),
+                new ActivityBucketDto(LocalDate.parse("2024-11-25"), WorkType.BOOK, 24, 2, 2)
+        ), activity(userId, ActivityGranularity.WEEK));
+        assertEquals(List.of(
+                new ActivityBucketDto(LocalDate.parse("2024-11-01"), WorkType.BOOK, 14, 3, 3),
+                new ActivityBucketDto(LocalDate.parse("2024-12-01"), WorkType.BOOK, 16, 1, 1)
+        ), activity(userId, ActivityGranularity.MONTH));
+    }
+
+    @Test
+    void concurrentFirstWritesBuildTheRollupsOnce() throws Exception {
+        ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+        try {
+            // Several rounds, each for a user whose rollups were never built
+            for (int round = 0; round < 5; round++) {
+                String name = "stats" + round;
+                Long userId = userService.registerUser(new UserRegistrationDto(name, name + "@example.com", "password1", null)).id();
+                Long workId = work(userId, "Dune");
+
+                CyclicBarrier start = new CyclicBarrier(WRITERS);
+                List<Future<?>> results = new ArrayList<>();
+                for (int i = 0; i < WRITERS; i++) {
+                    results.add(writers.submit(() -> {
+                        start.await();
+                        return sessionService.createSession(userId, new SessionCreateUpdateDto(workId, null, null, 10, 2, null));
+                    }));
+                }
+                for (Future<?> result : results) {
+                    result.get();
+                }
+
+                assertEquals(new StatsSummaryDto(10L * WRITERS, 2L * WRITERS, WRITERS), statsService.getSummary(userId));
+            }
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private Long work(Long userId, String title) {
+        return workService.createWork(userId, new WorkCreateUpdateDto(
+                title, WorkType.BOOK, null, null, WorkStatus.IN_PROGRESS, null, null, null, null)).id();
+    }
+
+    private List<ActivityBucketDto> activity(Long userId, ActivityGranularity granularity) {
+        List<ActivityBucketDto> buckets = new ArrayList<>();
+        ActivityQuery query = ActivityQuery.of(LocalDate.parse("2024-11-18"), LocalDate.parse("2024-12-01"), granularity);
+        statsService.streamActivity(userId, query, buckets::add);
+        return buckets;
+    }
+
+    private void session(Long userId, Long workId, String startedAt, int minutes) {
+        sessionService.createSession(userId, new SessionCreateUpdateDto(workId, Instant.parse(startedAt), null, minutes, 1, null));
+    }
+}
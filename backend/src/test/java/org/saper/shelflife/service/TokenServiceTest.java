@@ -0,0 +1,77 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final TokenService tokens = at(NOW);
+
+    @Test
+    void issuedTokenVerifiesToItsUser() {
+        TokenService.IssuedToken issued = tokens.issue(42L);
+
+        assertEquals(42L, tokens.verify(issued.token()));
+        assertEquals(42L, tokens.verify(issued.token()), "cached path");
+        assertEquals(NOW.plus(Duration.ofHours(12)), issued.expiresAt());
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        String token = tokens.issue(42L).token();
+
+        assertUnauthorized(() -> tokens.verify("43" + token.substring(2)));
+        assertUnauthorized(() -> tokens.verify(token.substring(0, token.length() - 1) + "A"));
+        assertUnauthorized(() -> tokens.verify("demo-token-user-1"));
+        assertUnauthorized(() -> tokens.verify("1.2."));
+    }
+
+    @Test
+    void tokenFromAnotherKeyIsRejected() {
+        TokenService other = new TokenService(
+                Base64.getEncoder().encodeToString(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+                        17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32}),
+                Duration.ofHours(12), 100, false, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertUnauthorized(() -> tokens.verify(other.issue(42L).token()));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = tokens.issue(42L).token();
+        tokens.verify(token);
+
+        TokenService later = at(NOW.plus(Duration.ofHours(13)));
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> later.verify(token));
+        assertEquals("Token expired", ex.getReason());
+    }
+
+    @Test
+    void demoTokensOnlyWhenExplicitlyAllowed() {
+        TokenService dev = new TokenService(SECRET, Duration.ofHours(12), 100, true, Clock.fixed(NOW, ZoneOffset.UTC));
+
+        assertEquals(7L, dev.verify("demo-token-user-7"));
+        assertUnauthorized(() -> tokens.verify("demo-token-user-7"));
+    }
+
+    private static TokenService at(Instant now) {
+        return new TokenService(SECRET, Duration.ofHours(12), 100, false, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static void assertUnauthorized(Runnable call) {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, call::run);
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+    }
+}
@@ -0,0 +1,65 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.dto.SuggestionDto;
+import org.saper.shelflife.dto.WorkSummaryDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TypeaheadIndexTest {
+
+    private final TypeaheadIndex index = TypeaheadIndex.build(List.of(
+            work(1, "Dune", "Frank Herbert"),
+            work(2, "Dune Messiah", "Frank Herbert"),
+            work(3, "Messiah", "Händel"),
+            work(4, "The Left Hand of Darkness", "Ursula K. Le Guin"),
+            work(5, "Children of Dune", "Frank Herbert"),
+            work(6, "Untitled", null)
+    ));
+
+    @Test
+    void matchesPrefixOfAnyWordWithLeadingMatchesFirst() {
+        assertEquals(List.of("Dune", "Dune Messiah", "Children of Dune"), values(index.suggest(SuggestionField.TITLE, "dun", 10)));
+        assertEquals(List.of("Messiah", "Dune Messiah"), values(index.suggest(SuggestionField.TITLE, "mess", 10)));
+    }
+
+    @Test
+    void ignoresCaseAccentsAndPunctuation() {
+        assertEquals(List.of("Händel"), values(index.suggest(SuggestionField.CREATOR, "HAN", 10)));
+        assertEquals(List.of("Ursula K. Le Guin"), values(index.suggest(SuggestionField.CREATOR, "k le", 10)));
+        assertEquals("ursula k le guin", TypeaheadIndex.normalize("  Ursula K. Le-Guin "));
+    }
+
+    @Test
+    void collapsesDuplicateValuesWithCounts() {
+        List<SuggestionDto> creators = index.suggest(SuggestionField.CREATOR, "frank", 10);
+
+        assertEquals(List.of(new SuggestionDto("Frank Herbert", 3)), creators);
+    }
+
+    @Test
+    void respectsLimitAndBlankPrefix() {
+        assertEquals(List.of("Dune"), values(index.suggest(SuggestionField.TITLE, "dun", 1)));
+        assertTrue(index.suggest(SuggestionField.TITLE, " - ", 10).isEmpty());
+        assertTrue(index.suggest(SuggestionField.TITLE, "zzz", 10).isEmpty());
+    }
+
+    @Test
+    void weightGrowsWithLibrary() {
+        TypeaheadIndex empty = TypeaheadIndex.build(List.of());
+
+        assertTrue(index.estimatedBytes() > empty.estimatedBytes());
+    }
+
+    private static List<String> values(List<SuggestionDto> suggestions) {
+        return suggestions.stream().map(SuggestionDto::value).toList();
+    }
+
+    private static WorkSummaryDto work(long id, String title, String creator) {
+        return new WorkSummaryDto(id, title, creator, WorkType.BOOK, null, WorkStatus.TO_EXPLORE);
+    }
+}
@@ -0,0 +1,31 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+import org.saper.shelflife.model.WorkStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkCursorTest {
+
+    @Test
+    void encodeDecodeRoundTripKeepsColonsInTitle() {
+        WorkCursor cursor = new WorkCursor(WorkStatus.IN_PROGRESS, "Dune: Messiah", 42L);
+
+        WorkCursor decoded = WorkCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertNull(WorkCursor.decode(null));
+        assertNull(WorkCursor.decode(""));
+    }
+
+    @Test
+    void garbageCursorIsRejected() {
+        assertThrows(ResponseStatusException.class, () -> WorkCursor.decode("not-a-cursor!"));
+        assertThrows(ResponseStatusException.class, () -> WorkCursor.decode("Zm9v")); // "foo"
+    }
+}
@@ -0,0 +1,24 @@
+package org.saper.shelflife.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkFilterTest {
+
+    @Test
+    void blankFiltersAreTreatedAsAbsent() {
+        WorkFilter filter = new WorkFilter(null, null, "  ", "", null);
+
+        assertTrue(filter.isEmpty());
+        assertNull(filter.genre());
+        assertNull(filter.titlePattern());
+    }
+
+    @Test
+    void titlePatternEscapesLikeWildcards() {
+        WorkFilter filter = new WorkFilter(null, null, null, null, "100%_done!");
+
+        assertEquals("100!%!_done!!%", filter.titlePattern());
+    }
+}
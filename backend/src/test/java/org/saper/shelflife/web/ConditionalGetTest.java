@@ -0,0 +1,67 @@
+package org.saper.shelflife.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalGetTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void firstRequestGetsTagAndFullResponse() {
+        ServletWebRequest request = get(null, null);
+
+        assertFalse(ConditionalGet.notModified(request, "works", 1L, 3));
+        assertTrue(response.getHeader("ETag").startsWith("\"works-1-3-"), response.getHeader("ETag"));
+        assertEquals("private, no-cache", response.getHeader("Cache-Control"));
+    }
+
+    @Test
+    void matchingTagIsNotModified() {
+        String etag = etag(null, 1L, 3);
+
+        assertTrue(ConditionalGet.notModified(get(etag, null), "works", 1L, 3));
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    void newerVersionOrOtherUserIsModified() {
+        String etag = etag(null, 1L, 3);
+
+        assertFalse(ConditionalGet.notModified(get(etag, null), "works", 1L, 4));
+        assertFalse(ConditionalGet.notModified(get(etag, null), "works", 2L, 3));
+    }
+
+    @Test
+    void otherQueryStringIsModified() {
+        String etag = etag("status=FINISHED", 1L, 3);
+
+        assertNotEquals(etag, etag(null, 1L, 3));
+        assertFalse(ConditionalGet.notModified(get(etag, "status=IN_PROGRESS"), "works", 1L, 3));
+        assertFalse(ConditionalGet.notModified(get(etag, null), "works", 1L, 3));
+        assertTrue(ConditionalGet.notModified(get(etag, "status=FINISHED"), "works", 1L, 3));
+    }
+
+    private String etag(String query, Long userId, long version) {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ConditionalGet.notModified(new ServletWebRequest(request(null, query), first), "works", userId, version);
+        return first.getHeader("ETag");
+    }
+
+    private ServletWebRequest get(String ifNoneMatch, String query) {
+        return new ServletWebRequest(request(ifNoneMatch, query), response);
+    }
+
+    private static MockHttpServletRequest request(String ifNoneMatch, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/works");
+        request.setQueryString(query);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,122 @@
+package org.saper.shelflife.web;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.saper.shelflife.config.H2StreamingSupport;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.dto.WorkDetailDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.repository.WorkRepository;
+import org.saper.shelflife.service.ExportFormat;
+import org.saper.shelflife.service.ExportService;
+import org.saper.shelflife.service.ServiceBusyException;
+import org.saper.shelflife.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Exports run longer than ordinary async requests and hold one of a few slots while they do.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.mvc.async.request-timeout=300ms",
+        "shelflife.export.timeout=1m",
+        "shelflife.export.max-concurrent=2"
+})
+@ActiveProfiles("h2")
+@Import(H2StreamingSupport.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportDownloadTest {
+
+    private static final int WORKS = 10;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @MockitoSpyBean
+    private WorkRepository workRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ExportService exportService;
+
+    private Long userId;
+
+    @BeforeAll
+    void createLibrary() {
+        userId = userService.registerUser(new UserRegistrationDto("exporter", "exporter@example.com", "password1", null)).id();
+    }
+
+    @Test
+    void downloadOutlivesTheDefaultAsyncTimeout() throws Exception {
+        // About a second of rows against a 300 ms request timeout
+        doAnswer(inv -> IntStream.range(0, WORKS).mapToObj(ExportDownloadTest::slowWork))
+                .when(workRepository).streamDetailsByUserId(any());
+
+        HttpResponse<String> response = http.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/export"))
+                        .header("Authorization", "Bearer demo-token-user-" + userId)
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode(), response::body);
+        assertEquals(WORKS, response.body().lines().filter(l -> l.startsWith("{\"type\":\"work\"")).count());
+        assertTrue(response.body().endsWith("\n"), "export was cut off");
+    }
+
+    @Test
+    void closingAnUnwrittenExportFreesItsSlot() throws Exception {
+        List<ExportService.Export> opened = new ArrayList<>();
+        opened.add(exportService.openExport(userId, ExportFormat.NDJSON));
+        opened.add(exportService.openExport(userId, ExportFormat.NDJSON));
+        assertThrows(ServiceBusyException.class, () -> exportService.openExport(userId, ExportFormat.NDJSON));
+
+        for (ExportService.Export export : opened) {
+            export.close();
+            export.close();
+        }
+        assertThrows(IllegalStateException.class, () -> opened.getFirst().writeTo(OutputStream.nullOutputStream()));
+
+        // A written export frees its slot when writeTo returns; closing it afterwards frees nothing more
+        try (ExportService.Export written = exportService.openExport(userId, ExportFormat.NDJSON);
+             ExportService.Export held = exportService.openExport(userId, ExportFormat.NDJSON)) {
+            written.writeTo(OutputStream.nullOutputStream());
+            written.close();
+            try (ExportService.Export again = exportService.openExport(userId, ExportFormat.NDJSON)) {
+                assertThrows(ServiceBusyException.class, () -> exportService.openExport(userId, ExportFormat.NDJSON));
+            }
+        }
+        assertDoesNotThrow(() -> exportService.openExport(userId, ExportFormat.NDJSON).close());
+    }
+
+    private static WorkDetailDto slowWork(int i) {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return new WorkDetailDto((long) i, "Work " + i, WorkType.BOOK, null, null, WorkStatus.IN_PROGRESS, null, null, null, null);
+    }
+}
@@ -0,0 +1,242 @@
+package org.saper.shelflife.web;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.saper.shelflife.dto.ReviewCreateUpdateDto;
+import org.saper.shelflife.dto.SessionBatchItemDto;
+import org.saper.shelflife.dto.SessionCreateUpdateDto;
+import org.saper.shelflife.dto.UserRegistrationDto;
+import org.saper.shelflife.dto.WorkCreateUpdateDto;
+import org.saper.shelflife.model.WorkStatus;
+import org.saper.shelflife.model.WorkType;
+import org.saper.shelflife.service.ReviewService;
+import org.saper.shelflife.service.SessionService;
+import org.saper.shelflife.service.UserService;
+import org.saper.shelflife.service.WorkService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pins the number of SQL statements the ownership-checked endpoints run per request, and that
+ * each one filters on user_id, so a lookup that loads a row and checks the owner in Java
+ * doesn't creep back in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+@Import(OwnershipQueryCountTest.CountingConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OwnershipQueryCountTest {
+
+    @TestConfiguration
+    static class CountingConfig {
+
+        @Bean
+        SqlStatementCounter sqlStatementCounter() {
+            return new SqlStatementCounter();
+        }
+
+        @Bean
+        HibernatePropertiesCustomizer statementCounting(SqlStatementCounter counter) {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+        }
+    }
+
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private WorkService workService;
+
+    @Autowired
+    private SessionService sessionService;
+
+    @Autowired
+    private ReviewService reviewService;
+
+    private Long owner;
+    private Long stranger;
+    private Long workId;
+    private Long sessionId;
+    private Long reviewId;
+    private Long disposableReviewId;
+
+    @BeforeAll
+    void createLibrary() {
+        owner = userService.registerUser(new UserRegistrationDto("owner", "owner@example.com", "password1", null)).id();
+        stranger = userService.registerUser(new UserRegistrationDto("stranger", "stranger@example.com", "password1", null)).id();
+
+        workId = workService.createWork(owner, new WorkCreateUpdateDto(
+                "Dune", WorkType.BOOK, "Frank Herbert", null, WorkStatus.IN_PROGRESS, null, null, null, null)).id();
+        sessionId = sessionService.createSession(owner, new SessionCreateUpdateDto(
+                workId, Instant.parse("2024-11-20T19:00:00Z"), null, 30, 20, null)).id();
+        reviewId = reviewService.upsertReview(owner, new ReviewCreateUpdateDto(
+                workId, 5, "Loved it", "A long body", false)).id();
+
+        Long otherWorkId = workService.createWork(owner, new WorkCreateUpdateDto(
+                "Emma", WorkType.BOOK, "Jane Austen", null, WorkStatus.FINISHED, null, null, null, null)).id();
+        disposableReviewId = reviewService.upsertReview(owner, new ReviewCreateUpdateDto(
+                otherWorkId, 3, null, null, false)).id();
+    }
+
+    @Test
+    void sessionReadsAreOneScopedQuery() {
+        assertStatements(1, 200, owner, "GET", "/api/sessions/" + sessionId);
+        assertStatements(1, 404, stranger, "GET", "/api/sessions/" + sessionId);
+    }
+
+    @Test
+    void foreignSessionWritesStopAfterTheLookup() {
+        String body = "{\"workId\":" + workId + ",\"minutes\":1}";
+        assertStatements(1, 404, stranger, "PUT", "/api/sessions/" + sessionId, body);
+        assertStatements(1, 404, stranger, "DELETE", "/api/sessions/" + sessionId);
+    }
+
+    @Test
+    void workOwnershipIsAnExistenceCheck() {
+        // ETag version lookup, exists check, page query; the works row itself is never loaded
+        assertStatements(3, 200, owner, "GET", "/api/works/" + workId + "/sessions?limit=10");
+        assertStatements(2, 404, stranger, "GET", "/api/works/" + workId + "/sessions?limit=10");
+    }
+
+    @Test
+    void reviewReadsAndForeignDeletesAreOneStatement() {
+        assertStatements(1, 200, owner, "GET", "/api/reviews/" + reviewId);
+        assertStatements(1, 404, stranger, "GET", "/api/reviews/" + reviewId);
+        assertStatements(1, 404, stranger, "DELETE", "/api/reviews/" + reviewId);
+    }
+
+    @Test
+    void reviewDeleteIsOneStatementPlusVersionBump() {
+        assertStatements(2, 204, owner, "DELETE", "/api/reviews/" + disposableReviewId);
+        assertStatements(1, 404, owner, "DELETE", "/api/reviews/" + disposableReviewId);
+    }
+
+    @Test
+    void writesAttachTheUserWithoutSelectingIt() {
+        HttpResponse<String> work = assertNoUserLookups(201, "POST", "/api/works",
+                "{\"title\":\"Persuasion\",\"type\":\"BOOK\",\"status\":\"IN_PROGRESS\"}");
+        String newWorkId = work.body().replaceAll(".*?\"id\":(\\d+).*", "$1");
+
+        assertNoUserLookups(201, "POST", "/api/sessions", "{\"workId\":" + newWorkId + ",\"minutes\":15}");
+        assertNoUserLookups(200, "PUT", "/api/works/" + newWorkId + "/review",
+                "{\"workId\":" + newWorkId + ",\"rating\":4,\"isPrivate\":false}");
+    }
+
+    @Test
+    void workDeleteCostDoesNotGrowWithSessions() {
+        Long fewSessions = workWithSessions("Few", 3);
+        Long manySessions = workWithSessions("Many", 300);
+
+        counter.reset();
+        assertEquals(204, send(owner, "DELETE", "/api/works/" + fewSessions, null).statusCode());
+        int few = counter.statements().size();
+
+        counter.reset();
+        assertEquals(204, send(owner, "DELETE", "/api/works/" + manySessions, null).statusCode());
+        List<String> many = counter.statements();
+
+        assertEquals(few, many.size(), () -> "deleting 300 sessions ran:\n" + String.join("\n", many));
+        // The work row is locked first and the sessions are read with a locking read, so the rows
+        // subtracted from the stats are the rows deleted
+        int workLock = indexOf(many, sql -> sql.startsWith("select work_id from works") && sql.endsWith("for update"));
+        int sessionRead = indexOf(many, sql -> sql.startsWith("select") && sql.contains("from sessions") && sql.endsWith("for update"));
+        assertTrue(workLock >= 0 && sessionRead > workLock, () -> String.join("\n", many));
+        assertEquals(404, send(owner, "GET", "/api/works/" + manySessions, null).statusCode());
+    }
+
+    // ---------- Internal helpers ----------
+
+    private static int indexOf(List<String> statements, Predicate<String> match) {
+        for (int i = 0; i < statements.size(); i++) {
+            if (match.test(statements.get(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void assertStatements(int expected, int status, Long userId, String method, String path) {
+        assertStatements(expected, status, userId, method, path, null);
+    }
+
+    private void assertStatements(int expected, int status, Long userId, String method, String path, String body) {
+        counter.reset();
+        HttpResponse<String> response = send(userId, method, path, body);
+
+        assertEquals(status, response.statusCode(), () -> method + " " + path + ": " + response.body());
+        List<String> statements = counter.statements();
+        assertEquals(expected, statements.size(),
+                () -> method + " " + path + " ran:\n" + String.join("\n", statements));
+        for (String sql : statements) {
+            // Inserts carry the user id as a value; everything that reads or changes rows must filter on it
+            if (!sql.startsWith("insert")) {
+                assertTrue(sql.contains("user_id=?"), () -> method + " " + path + " ran an unscoped statement: " + sql);
+            }
+        }
+    }
+
+    /**
+     * A work with n sessions, all on one day so the stats rollups cost the same for any n.
+     */
+    private Long workWithSessions(String title, int n) {
+        Long id = workService.createWork(owner, new WorkCreateUpdateDto(
+                title, WorkType.BOOK, null, null, WorkStatus.IN_PROGRESS, null, null, null, null)).id();
+        List<SessionBatchItemDto> items = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            items.add(new SessionBatchItemDto(null, id, Instant.parse("2024-11-20T08:00:00Z").plusSeconds(i), null, 1, 1, null));
+        }
+        sessionService.createSessionBatch(owner, items);
+        return id;
+    }
+
+    private HttpResponse<String> assertNoUserLookups(int status, String method, String path, String body) {
+        counter.reset();
+        HttpResponse<String> response = send(owner, method, path, body);
+
+        assertEquals(status, response.statusCode(), () -> method + " " + path + ": " + response.body());
+        for (String sql : counter.statements()) {
+            assertFalse(sql.contains(" from users "), () -> method + " " + path + " loaded the user: " + sql);
+        }
+        return response;
+    }
+
+    private HttpResponse<String> send(Long userId, String method, String path, String body) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer demo-token-user-" + userId)
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception ex) {
+            throw new IllegalStateException(method + " " + path + " failed", ex);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.saper.shelflife.web;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records every SQL statement Hibernate prepares, so tests can assert how many a request ran.
+ */
+class SqlStatementCounter implements StatementInspector {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    void reset() {
+        statements.clear();
+    }
+
+    List<String> statements() {
+        return List.copyOf(statements);
+    }
+}